@@ -6,6 +6,7 @@ ETL DAG для подготовки витрины отчётности по п
 2. Извлечение данных телеметрии из БД (PostgreSQL)
 3. Объединение и агрегация данных
 4. Загрузка в витрину ClickHouse
+5. Запуск предварительной генерации отчётов в bionicpro-reports
 """
 
 from datetime import datetime, timedelta
@@ -21,11 +22,16 @@ except ImportError:
     CLICKHOUSE_AVAILABLE = False
     import requests
 import logging
+import os
 
 # Параметры подключения
 CRM_DB_CONN_ID = 'crm_postgres'
 TELEMETRY_DB_CONN_ID = 'telemetry_postgres'
 CLICKHOUSE_CONN_ID = 'clickhouse_default'
+REPORTS_PREWARM_URL = os.environ.get(
+    'REPORTS_PREWARM_URL', 'http://bionicpro-reports:8000/api/reports/prewarm'
+)
+REPORTS_PREWARM_TOKEN = os.environ.get('REPORTS_PREWARM_TOKEN', '')
 
 default_args = {
     'owner': 'bionicpro',
@@ -313,6 +319,32 @@ def create_clickhouse_table(**context):
     
     logging.info("Таблица создана успешно")
 
+def trigger_report_prewarm(**context):
+    """Запуск предварительной генерации отчётов после обновления витрины."""
+    import requests
+
+    if not REPORTS_PREWARM_TOKEN:
+        logging.warning("REPORTS_PREWARM_TOKEN не задан, прогрев отчётов запустится по опросу витрины")
+        return
+
+    try:
+        response = requests.post(
+            REPORTS_PREWARM_URL,
+            headers={'X-Prewarm-Token': REPORTS_PREWARM_TOKEN},
+            timeout=10,
+        )
+    except requests.RequestException as e:
+        # Сервис отчётов сам заметит обновление витрины при следующем опросе
+        logging.warning(f"Не удалось запустить прогрев отчётов: {e}")
+        return
+
+    if response.status_code == 409:
+        logging.info("Прогрев отчётов уже выполняется")
+    elif response.ok:
+        logging.info("Прогрев отчётов запущен")
+    else:
+        logging.warning(f"Прогрев отчётов не запущен: HTTP {response.status_code}")
+
 create_table_task = PythonOperator(
     task_id='create_clickhouse_table',
     python_callable=create_clickhouse_table,
@@ -344,8 +376,15 @@ load_task = PythonOperator(
     dag=dag,
 )
 
+prewarm_task = PythonOperator(
+    task_id='trigger_report_prewarm',
+    python_callable=trigger_report_prewarm,
+    dag=dag,
+)
+
 # Определение зависимостей
 create_table_task >> [extract_crm_task, extract_telemetry_task]
 [extract_crm_task, extract_telemetry_task] >> transform_task
 transform_task >> load_task
+load_task >> prewarm_task
 
@@ -159,3 +159,79 @@ PARTITION BY toYYYYMM(report_date)
 ORDER BY (user_id, prosthesis_id, report_date)
 SETTINGS index_granularity = 8192;
 
+
+-- Недельные и месячные агрегаты витрины для отчётов за длинные периоды
+-- Строятся только из схлопнутой витрины (prosthesis_reports_mart FINAL): ReportRollupRebuilder сервиса
+-- bionicpro-reports находит месяцы, загруженные в витрину позже их агрегатов (mart_loaded_at),
+-- и атомарно заменяет затронутые партиции (REPLACE PARTITION). MaterializedView здесь не подходит:
+-- он суммирует каждую вставку, и перезалитый день посчитался бы в агрегатах дважды.
+-- Полная пересборка вручную — rebuild-report-rollups.sql
+DROP VIEW IF EXISTS prosthesis_reports_weekly_mv;
+DROP VIEW IF EXISTS prosthesis_reports_monthly_mv;
+
+CREATE TABLE IF NOT EXISTS prosthesis_reports_weekly (
+    user_id String,
+    prosthesis_id String,
+    period_start Date,
+    user_email SimpleAggregateFunction(anyLast, String),
+    user_name SimpleAggregateFunction(anyLast, String),
+    prosthesis_model SimpleAggregateFunction(anyLast, String),
+    manufacture_date SimpleAggregateFunction(anyLast, Date),
+    usage_count SimpleAggregateFunction(sum, UInt64),
+    total_usage_minutes SimpleAggregateFunction(sum, UInt64),
+    avg_battery_level AggregateFunction(avg, Float32),
+    commands_executed SimpleAggregateFunction(sum, UInt64),
+    last_activity SimpleAggregateFunction(max, DateTime),
+    data_period_start SimpleAggregateFunction(min, DateTime),
+    data_period_end SimpleAggregateFunction(max, DateTime),
+    mart_loaded_at SimpleAggregateFunction(max, DateTime)
+) ENGINE = AggregatingMergeTree()
+PARTITION BY toYYYYMM(period_start)
+ORDER BY (user_id, prosthesis_id, period_start)
+SETTINGS index_granularity = 8192;
+
+CREATE TABLE IF NOT EXISTS prosthesis_reports_monthly (
+    user_id String,
+    prosthesis_id String,
+    period_start Date,
+    user_email SimpleAggregateFunction(anyLast, String),
+    user_name SimpleAggregateFunction(anyLast, String),
+    prosthesis_model SimpleAggregateFunction(anyLast, String),
+    manufacture_date SimpleAggregateFunction(anyLast, Date),
+    usage_count SimpleAggregateFunction(sum, UInt64),
+    total_usage_minutes SimpleAggregateFunction(sum, UInt64),
+    avg_battery_level AggregateFunction(avg, Float32),
+    commands_executed SimpleAggregateFunction(sum, UInt64),
+    last_activity SimpleAggregateFunction(max, DateTime),
+    data_period_start SimpleAggregateFunction(min, DateTime),
+    data_period_end SimpleAggregateFunction(max, DateTime),
+    mart_loaded_at SimpleAggregateFunction(max, DateTime)
+) ENGINE = AggregatingMergeTree()
+PARTITION BY toYYYYMM(period_start)
+ORDER BY (user_id, prosthesis_id, period_start)
+SETTINGS index_granularity = 8192;
+
+-- Внутридневные агрегаты телеметрии по протезам
+-- Заполняются IntradayAggregator сервиса bionicpro-reports из CDC-топика telemetry_db.public.telemetry_data:
+-- каждая выгрузка добавляет приращения за последние секунды, ClickHouse суммирует их при слиянии.
+-- Строка хранит партицию Kafka и последнее учтённое смещение: после перезапуска или ребалансировки
+-- агрегатор продолжает с max(last_offset) + 1, поэтому события не учитываются повторно.
+-- Таблица не партиционирована, чтобы вставка одной выгрузки ложилась одним куском целиком.
+-- Данные за прошедшие дни попадают в витрину ночным ETL, поэтому хранятся неделю
+CREATE TABLE IF NOT EXISTS prosthesis_usage_intraday (
+    prosthesis_id String,
+    report_date Date,
+    source LowCardinality(String),
+    source_partition UInt32,
+    last_offset SimpleAggregateFunction(max, UInt64),
+    usage_count SimpleAggregateFunction(sum, UInt64),
+    total_usage_minutes SimpleAggregateFunction(sum, UInt64),
+    battery_sum SimpleAggregateFunction(sum, Float64),
+    battery_count SimpleAggregateFunction(sum, UInt64),
+    commands_executed SimpleAggregateFunction(sum, UInt64),
+    first_activity SimpleAggregateFunction(min, DateTime),
+    last_activity SimpleAggregateFunction(max, DateTime)
+) ENGINE = AggregatingMergeTree()
+ORDER BY (prosthesis_id, report_date, source, source_partition)
+TTL report_date + INTERVAL 7 DAY
+SETTINGS index_granularity = 8192;
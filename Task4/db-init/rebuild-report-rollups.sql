@@ -0,0 +1,50 @@
+-- SQL скрипт для пересборки недельных и месячных агрегатов витрины prosthesis_reports_mart
+-- Сервис bionicpro-reports пересобирает изменённые месяцы сам (ReportRollupRebuilder);
+-- скрипт нужен для полной пересборки вручную, например при отключённом reports.rollups.rebuild-enabled.
+-- Запускать между загрузками ETL: до конца пересборки отчёты за длинные периоды неполные
+
+USE reports_db;
+
+TRUNCATE TABLE prosthesis_reports_weekly;
+
+INSERT INTO prosthesis_reports_weekly
+SELECT
+    user_id,
+    prosthesis_id,
+    toMonday(report_date) AS period_start,
+    anyLast(user_email) AS user_email,
+    anyLast(user_name) AS user_name,
+    anyLast(prosthesis_model) AS prosthesis_model,
+    anyLast(manufacture_date) AS manufacture_date,
+    sum(usage_count) AS usage_count,
+    sum(total_usage_minutes) AS total_usage_minutes,
+    avgState(avg_battery_level) AS avg_battery_level,
+    sum(commands_executed) AS commands_executed,
+    max(last_activity) AS last_activity,
+    min(data_period_start) AS data_period_start,
+    max(data_period_end) AS data_period_end,
+    max(created_at) AS mart_loaded_at
+FROM prosthesis_reports_mart FINAL
+GROUP BY user_id, prosthesis_id, period_start;
+
+TRUNCATE TABLE prosthesis_reports_monthly;
+
+INSERT INTO prosthesis_reports_monthly
+SELECT
+    user_id,
+    prosthesis_id,
+    toStartOfMonth(report_date) AS period_start,
+    anyLast(user_email) AS user_email,
+    anyLast(user_name) AS user_name,
+    anyLast(prosthesis_model) AS prosthesis_model,
+    anyLast(manufacture_date) AS manufacture_date,
+    sum(usage_count) AS usage_count,
+    sum(total_usage_minutes) AS total_usage_minutes,
+    avgState(avg_battery_level) AS avg_battery_level,
+    sum(commands_executed) AS commands_executed,
+    max(last_activity) AS last_activity,
+    min(data_period_start) AS data_period_start,
+    max(data_period_end) AS data_period_end,
+    max(created_at) AS mart_loaded_at
+FROM prosthesis_reports_mart FINAL
+GROUP BY user_id, prosthesis_id, period_start;
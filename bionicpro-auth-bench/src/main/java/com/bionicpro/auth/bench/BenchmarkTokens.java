@@ -0,0 +1,32 @@
+package com.bionicpro.auth.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class BenchmarkTokens {
+
+    private BenchmarkTokens() {
+    }
+
+    public static String jwt(int length) {
+        return jwt(length, 300);
+    }
+
+    public static String jwt(int length, long ttlSeconds) {
+        return jwt(length, ttlSeconds, "bench-user");
+    }
+
+    public static String jwt(int length, long ttlSeconds, String subject) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"RS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        long exp = System.currentTimeMillis() / 1000 + ttlSeconds;
+        String payload = encoder.encodeToString(
+                ("{\"exp\":" + exp + ",\"sub\":\"" + subject + "\",\"iss\":\"bench\"}").getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder token = new StringBuilder(length).append(header).append('.').append(payload).append('.');
+        byte[] signature = new byte[Math.max(32, (length - token.length()) * 3 / 4)];
+        ThreadLocalRandom.current().nextBytes(signature);
+        return token.append(encoder.encodeToString(signature)).toString();
+    }
+}
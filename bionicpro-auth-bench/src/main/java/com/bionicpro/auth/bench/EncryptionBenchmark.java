@@ -0,0 +1,95 @@
+package com.bionicpro.auth.bench;
+
+import com.bionicpro.auth.config.EncryptionProperties;
+import com.bionicpro.auth.util.EncryptionUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EncryptionBenchmark {
+
+    private static final String KEY = "default-encryption-key-change-in-production";
+
+    private EncryptionUtil encryptionUtil;
+    private SecretKey legacyKey;
+    private String refreshToken;
+    private byte[] refreshTokenBytes;
+    private String encryptedToken;
+    private byte[] encryptedTokenBytes;
+    private String legacyEncryptedToken;
+
+    @Setup
+    public void setup() throws Exception {
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setKey(KEY);
+        encryptionUtil = new EncryptionUtil(properties);
+        legacyKey = new SecretKeySpec(Arrays.copyOf(KEY.getBytes(StandardCharsets.UTF_8), 16), "AES");
+
+        refreshToken = BenchmarkTokens.jwt(900);
+        refreshTokenBytes = refreshToken.getBytes(StandardCharsets.UTF_8);
+        encryptedToken = encryptionUtil.encrypt(refreshToken);
+        encryptedTokenBytes = encryptionUtil.encrypt(refreshTokenBytes);
+        legacyEncryptedToken = legacyEncrypt(refreshToken);
+    }
+
+    @Benchmark
+    public String legacyEcbEncrypt() throws Exception {
+        return legacyEncrypt(refreshToken);
+    }
+
+    @Benchmark
+    public String legacyEcbDecrypt() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.DECRYPT_MODE, legacyKey);
+        return new String(cipher.doFinal(Base64.getDecoder().decode(legacyEncryptedToken)), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String gcmEncryptString() {
+        return encryptionUtil.encrypt(refreshToken);
+    }
+
+    @Benchmark
+    public String gcmDecryptString() {
+        return encryptionUtil.decrypt(encryptedToken);
+    }
+
+    @Benchmark
+    public byte[] gcmEncryptBytes() {
+        return encryptionUtil.encrypt(refreshTokenBytes);
+    }
+
+    @Benchmark
+    public byte[] gcmDecryptBytes() {
+        return encryptionUtil.decrypt(encryptedTokenBytes);
+    }
+
+    private String legacyEncrypt(String plainText) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, legacyKey);
+        return Base64.getEncoder().encodeToString(cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8)));
+    }
+}
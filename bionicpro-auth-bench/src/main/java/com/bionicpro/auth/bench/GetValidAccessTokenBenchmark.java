@@ -0,0 +1,91 @@
+package com.bionicpro.auth.bench;
+
+import com.bionicpro.auth.bench.load.AuthLoadTest;
+import com.bionicpro.auth.bench.load.KeycloakStub;
+import com.bionicpro.auth.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link AuthService#getValidAccessToken} inside a full application context,
+ * backed by an embedded Redis and {@link KeycloakStub}. {@code expired} makes
+ * the stub issue tokens that are already expired, so every call goes through
+ * the refresh coordinator.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(4)
+public class GetValidAccessTokenBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+
+        @Param({"valid", "expired"})
+        public String accessToken;
+
+        @Param({"true", "false"})
+        public String sessionCache;
+
+        @Param({"0"})
+        public long keycloakLatencyMs;
+
+        RedisServer redisServer;
+        KeycloakStub keycloakStub;
+        ConfigurableApplicationContext context;
+        AuthService authService;
+        final AtomicInteger logins = new AtomicInteger();
+
+        @Setup
+        public void setup() throws Exception {
+            int redisPort = AuthLoadTest.freePort();
+            redisServer = new RedisServer(redisPort);
+            redisServer.start();
+            keycloakStub = new KeycloakStub(keycloakLatencyMs, "expired".equals(accessToken) ? 0 : 600);
+            context = AuthLoadTest.startAuthService(redisPort, keycloakStub.getUrl(), false,
+                    new String[] {"--session.cache.enabled=" + sessionCache});
+            authService = context.getBean(AuthService.class);
+        }
+
+        @TearDown
+        public void tearDown() throws Exception {
+            context.close();
+            keycloakStub.close();
+            redisServer.stop();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SessionState {
+        String sessionId;
+
+        @Setup
+        public void setup(ServiceState service) {
+            sessionId = service.authService.authenticate("bench-code-" + service.logins.incrementAndGet(),
+                    "bench-verifier", "http://localhost:3000/callback");
+        }
+    }
+
+    @Benchmark
+    public String getValidAccessToken(ServiceState service, SessionState session) {
+        return service.authService.getValidAccessToken(session.sessionId);
+    }
+}
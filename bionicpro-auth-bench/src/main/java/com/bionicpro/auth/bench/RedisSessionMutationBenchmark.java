@@ -0,0 +1,138 @@
+package com.bionicpro.auth.bench;
+
+import com.bionicpro.auth.config.EncryptionProperties;
+import com.bionicpro.auth.config.RedisConfig;
+import com.bionicpro.auth.model.SessionData;
+import com.bionicpro.auth.service.AuthMetrics;
+import com.bionicpro.auth.service.RedisSessionStore;
+import com.bionicpro.auth.service.SessionCache;
+import com.bionicpro.auth.service.SessionService;
+import com.bionicpro.auth.util.EncryptionUtil;
+import com.bionicpro.auth.util.JwtClaimsParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requires a running Redis, configured with -Dredis.host and -Dredis.port
+ * (defaults to localhost:6379).
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisSessionMutationBenchmark {
+
+    private static final long SESSION_TTL_SECONDS = 7200;
+    private static final int EXPIRES_IN = 300;
+
+    @State(Scope.Benchmark)
+    public static class RedisState {
+        LettuceConnectionFactory connectionFactory;
+        RedisTemplate<String, Object> redisTemplate;
+        EncryptionUtil encryptionUtil;
+        SessionService sessionService;
+        String accessToken;
+        String refreshToken;
+
+        @Setup
+        public void setup() {
+            connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(
+                    System.getProperty("redis.host", "localhost"),
+                    Integer.getInteger("redis.port", 6379)));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+
+            redisTemplate = new RedisConfig().redisTemplate(connectionFactory);
+            redisTemplate.afterPropertiesSet();
+            StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+
+            EncryptionProperties properties = new EncryptionProperties();
+            properties.setKey("default-encryption-key-change-in-production");
+            encryptionUtil = new EncryptionUtil(properties);
+            RedisSessionStore sessionStore = new RedisSessionStore(redisTemplate);
+            SessionCache sessionCache = new SessionCache(stringRedisTemplate, new RedisMessageListenerContainer(),
+                    sessionStore, new SimpleMeterRegistry(), false, 1, 1, "bench-session-invalidation");
+            sessionService = new SessionService(sessionStore, encryptionUtil, sessionCache,
+                    new JwtClaimsParser(), new AuthMetrics(new SimpleMeterRegistry()), SESSION_TTL_SECONDS, 120);
+
+            accessToken = BenchmarkTokens.jwt(1400);
+            refreshToken = BenchmarkTokens.jwt(900);
+        }
+
+        @TearDown
+        public void tearDown() {
+            connectionFactory.destroy();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SessionState {
+        String sessionId;
+
+        @Setup(Level.Iteration)
+        public void setup(RedisState redis) {
+            sessionId = redis.sessionService.createSession(redis.accessToken, redis.refreshToken, EXPIRES_IN);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown(RedisState redis) {
+            redis.sessionService.deleteSession(sessionId);
+        }
+    }
+
+    @Benchmark
+    public void legacyUpdate(RedisState redis, SessionState session) {
+        SessionData sessionData = new SessionData(redis.accessToken,
+                redis.encryptionUtil.encrypt(redis.refreshToken), System.currentTimeMillis());
+        String key = "session:" + session.sessionId;
+        Long ttl = redis.redisTemplate.getExpire(key, TimeUnit.SECONDS);
+        if (ttl != null && ttl > 0) {
+            redis.redisTemplate.opsForValue().set(key, sessionData, ttl, TimeUnit.SECONDS);
+        } else {
+            redis.redisTemplate.opsForValue().set(key, sessionData, SESSION_TTL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    @Benchmark
+    public void scriptedUpdate(RedisState redis, SessionState session) {
+        redis.sessionService.updateSession(session.sessionId, System.currentTimeMillis(),
+                redis.accessToken, redis.refreshToken, EXPIRES_IN);
+    }
+
+    @Benchmark
+    public void legacyRotate(RedisState redis, SessionState session) {
+        SessionData sessionData = new SessionData(redis.accessToken,
+                redis.encryptionUtil.encrypt(redis.refreshToken), System.currentTimeMillis());
+        String newSessionId = UUID.randomUUID().toString();
+        redis.redisTemplate.delete("session:" + session.sessionId);
+        redis.redisTemplate.opsForValue().set("session:" + newSessionId, sessionData,
+                SESSION_TTL_SECONDS, TimeUnit.SECONDS);
+        session.sessionId = newSessionId;
+    }
+
+    @Benchmark
+    public void scriptedRotate(RedisState redis, SessionState session) {
+        session.sessionId = redis.sessionService.rotateSession(session.sessionId,
+                redis.accessToken, redis.refreshToken, EXPIRES_IN);
+    }
+}
@@ -0,0 +1,74 @@
+package com.bionicpro.auth.bench;
+
+import com.bionicpro.auth.config.EncryptionProperties;
+import com.bionicpro.auth.config.SessionDataRedisSerializer;
+import com.bionicpro.auth.model.SessionData;
+import com.bionicpro.auth.util.EncryptionUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionDataSerializationBenchmark {
+
+    private GenericJackson2JsonRedisSerializer jsonSerializer;
+    private SessionDataRedisSerializer binarySerializer;
+    private SessionData sessionData;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setup() {
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setKey("default-encryption-key-change-in-production");
+        EncryptionUtil encryptionUtil = new EncryptionUtil(properties);
+
+        jsonSerializer = new GenericJackson2JsonRedisSerializer();
+        binarySerializer = new SessionDataRedisSerializer();
+        sessionData = new SessionData(BenchmarkTokens.jwt(1400),
+                encryptionUtil.encrypt(BenchmarkTokens.jwt(900)), System.currentTimeMillis());
+        json = jsonSerializer.serialize(sessionData);
+        binary = binarySerializer.serialize(sessionData);
+        System.out.printf("%nSessionData size: json=%d bytes, binary=%d bytes%n", json.length, binary.length);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize(sessionData);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return jsonSerializer.deserialize(json);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return binarySerializer.serialize(sessionData);
+    }
+
+    @Benchmark
+    public Object binaryDeserialize() {
+        return binarySerializer.deserialize(binary);
+    }
+
+    @Benchmark
+    public Object binaryReadsLegacyJson() {
+        return binarySerializer.deserialize(json);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bionicpro.auth.bench;
+
+import com.bionicpro.auth.model.SessionData;
+import com.bionicpro.auth.service.AuthMetrics;
+import com.bionicpro.auth.service.SessionService;
+import com.bionicpro.auth.util.JwtClaimsParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expiry checks run on every {@code getValidAccessToken} call. {@code legacy}
+ * sessions carry no stored expiry and fall back to the configured TTL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionExpiryBenchmark {
+
+    @Param({"stored", "legacy"})
+    public String expiry;
+
+    private SessionService sessionService;
+    private SessionData sessionData;
+
+    @Setup
+    public void setup() {
+        sessionService = new SessionService(null, null, null, new JwtClaimsParser(),
+                new AuthMetrics(new SimpleMeterRegistry()), 7200, 120);
+        long now = System.currentTimeMillis();
+        long expiresAt = "stored".equals(expiry) ? now + TimeUnit.SECONDS.toMillis(300) : 0;
+        sessionData = new SessionData(BenchmarkTokens.jwt(1400), BenchmarkTokens.jwt(900), now, expiresAt);
+    }
+
+    @Benchmark
+    public boolean isAccessTokenExpired() {
+        return sessionService.isAccessTokenExpired(sessionData);
+    }
+
+    @Benchmark
+    public boolean shouldRotateSession() {
+        return sessionService.shouldRotateSession(sessionData);
+    }
+}
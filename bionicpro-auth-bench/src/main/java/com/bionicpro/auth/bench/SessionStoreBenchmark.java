@@ -0,0 +1,127 @@
+package com.bionicpro.auth.bench;
+
+import com.bionicpro.auth.bench.load.AuthLoadTest;
+import com.bionicpro.auth.config.RedisConfig;
+import com.bionicpro.auth.config.SessionDataRedisSerializer;
+import com.bionicpro.auth.config.SessionStoreProperties;
+import com.bionicpro.auth.model.SessionData;
+import com.bionicpro.auth.service.MappedSessionStore;
+import com.bionicpro.auth.service.RedisSessionStore;
+import com.bionicpro.auth.service.SessionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RedisSessionStore} on an embedded Redis against {@link MappedSessionStore}
+ * with {@code sessions} pre-populated entries. Run with {@code -prof gc} to compare
+ * allocation; the mapped store keeps session bodies off-heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class SessionStoreBenchmark {
+
+    private static final long TTL_MILLIS = TimeUnit.HOURS.toMillis(2);
+
+    @Param({"redis", "mapped"})
+    public String store;
+
+    @Param({"100000"})
+    public int sessions;
+
+    private SessionStore sessionStore;
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private Path storePath;
+    private String[] sessionIds;
+    private byte[] value;
+
+    @Setup
+    public void setup() throws Exception {
+        if ("redis".equals(store)) {
+            int port = AuthLoadTest.freePort();
+            redisServer = new RedisServer(port);
+            redisServer.start();
+            connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            RedisTemplate<String, Object> redisTemplate = new RedisConfig().redisTemplate(connectionFactory);
+            redisTemplate.afterPropertiesSet();
+            sessionStore = new RedisSessionStore(redisTemplate);
+        } else {
+            storePath = Files.createTempFile("sessions", ".db");
+            SessionStoreProperties properties = new SessionStoreProperties();
+            properties.getMapped().setPath(storePath.toString());
+            properties.getMapped().setMaxSessions(sessions * 2);
+            sessionStore = new MappedSessionStore(properties);
+        }
+
+        long now = System.currentTimeMillis();
+        value = new SessionDataRedisSerializer().serialize(new SessionData(BenchmarkTokens.jwt(1400),
+                "$" + BenchmarkTokens.jwt(900), now, now + TimeUnit.MINUTES.toMillis(5)));
+        sessionIds = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            sessionIds[i] = UUID.randomUUID().toString();
+            sessionStore.createIfAbsent(sessionIds[i], "user-" + i, value, TTL_MILLIS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (sessionStore instanceof MappedSessionStore mappedSessionStore) {
+            mappedSessionStore.close();
+            Files.deleteIfExists(storePath);
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+            redisServer.stop();
+        }
+    }
+
+    @Benchmark
+    public byte[] get() {
+        return sessionStore.get(randomSessionId());
+    }
+
+    @Benchmark
+    public boolean update() {
+        return sessionStore.update(randomSessionId(), value);
+    }
+
+    @Benchmark
+    public boolean createAndDelete() {
+        String sessionId = UUID.randomUUID().toString();
+        boolean created = sessionStore.createIfAbsent(sessionId, "bench-user", value, TTL_MILLIS);
+        sessionStore.delete(sessionId, "bench-user");
+        return created;
+    }
+
+    private String randomSessionId() {
+        return sessionIds[ThreadLocalRandom.current().nextInt(sessionIds.length)];
+    }
+}
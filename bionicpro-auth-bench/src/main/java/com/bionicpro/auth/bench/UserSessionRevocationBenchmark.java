@@ -0,0 +1,137 @@
+package com.bionicpro.auth.bench;
+
+import com.bionicpro.auth.bench.load.AuthLoadTest;
+import com.bionicpro.auth.config.RedisConfig;
+import com.bionicpro.auth.config.SessionDataRedisSerializer;
+import com.bionicpro.auth.model.SessionData;
+import com.bionicpro.auth.service.RedisSessionStore;
+import com.bionicpro.auth.util.JwtClaimsParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import redis.embedded.RedisServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoking every session of one user among {@code sessions} sessions of other users:
+ * the per-user index in {@link RedisSessionStore} against a SCAN over the whole
+ * {@code session:*} keyspace that decodes each session to find its subject.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSessionRevocationBenchmark {
+
+    private static final long TTL_MILLIS = TimeUnit.HOURS.toMillis(2);
+    private static final String SUBJECT = "revoked-user";
+
+    @Param({"10000"})
+    public int sessions;
+
+    @Param({"1", "10", "100"})
+    public int userSessions;
+
+    private final SessionDataRedisSerializer serializer = new SessionDataRedisSerializer();
+    private final JwtClaimsParser jwtClaimsParser = new JwtClaimsParser();
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, Object> redisTemplate;
+    private RedisSessionStore sessionStore;
+    private byte[] userValue;
+
+    @Setup
+    public void setup() throws Exception {
+        int port = AuthLoadTest.freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port),
+                LettucePoolingClientConfiguration.defaultConfiguration());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new RedisConfig().redisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+        sessionStore = new RedisSessionStore(redisTemplate);
+
+        for (int i = 0; i < sessions; i++) {
+            String subject = "user-" + i;
+            sessionStore.createIfAbsent(UUID.randomUUID().toString(), subject, value(subject), TTL_MILLIS);
+        }
+        userValue = value(SUBJECT);
+    }
+
+    @Setup(Level.Invocation)
+    public void createUserSessions() {
+        for (int i = 0; i < userSessions; i++) {
+            sessionStore.createIfAbsent(UUID.randomUUID().toString(), SUBJECT, userValue, TTL_MILLIS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public int indexedRevoke() {
+        return sessionStore.revokeAll(SUBJECT).size();
+    }
+
+    @Benchmark
+    public int scanRevoke() {
+        List<byte[]> revoked = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> {
+            List<byte[]> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match("session:*").count(1000).build();
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    byte[] key = cursor.next();
+                    byte[] value = connection.stringCommands().get(key);
+                    if (value != null && SUBJECT.equals(subject(value))) {
+                        keys.add(key);
+                    }
+                }
+            }
+            if (!keys.isEmpty()) {
+                connection.keyCommands().del(keys.toArray(new byte[0][]));
+            }
+            return keys;
+        });
+        redisTemplate.delete("user-sessions:" + SUBJECT);
+        return revoked.size();
+    }
+
+    private String subject(byte[] value) {
+        SessionData sessionData = (SessionData) serializer.deserialize(value);
+        return jwtClaimsParser.parse(sessionData.getAccessToken()).getSubject();
+    }
+
+    private byte[] value(String subject) {
+        long now = System.currentTimeMillis();
+        return serializer.serialize(new SessionData(BenchmarkTokens.jwt(1400, 300, subject),
+                "$" + BenchmarkTokens.jwt(900), now, now + TimeUnit.MINUTES.toMillis(5)));
+    }
+}
@@ -0,0 +1,289 @@
+package com.bionicpro.auth.bench.load;
+
+import com.bionicpro.auth.BionicproAuthApplication;
+import com.bionicpro.reports.BionicproReportsApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import redis.embedded.RedisServer;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots bionicpro-auth against an embedded Redis and {@link KeycloakStub} and
+ * drives it with platform and virtual Tomcat request threads.
+ *
+ * <p>Scenarios ({@code load.scenarios}): {@code token}, {@code callback},
+ * {@code refresh} and {@code mixed}, a weighted {@link MixedScenario} set by
+ * {@code load.mix}. Report fetches in the mix go to bionicpro-reports booted next
+ * to the auth service against the same Redis, {@link ClickHouseStubDataSource},
+ * {@link S3Stub} and the stub's JWKS, or to an already running instance at
+ * {@code load.reports-url}.
+ *
+ * <p>Other system properties: {@code load.threads} (platform, virtual or both),
+ * {@code load.concurrency}, {@code load.warmup-seconds}, {@code load.duration-seconds},
+ * {@code load.keycloak-latency-ms}, {@code load.access-ttl-seconds},
+ * {@code load.clickhouse-latency-ms}, {@code load.prostheses-per-user}, {@code load.output}
+ * (CSV file to append results to) and {@code load.label} (version column in the CSV,
+ * compared by {@link LoadReportDiff}). Program arguments are passed to the service as
+ * Spring properties, e.g. {@code --keycloak.http.max-concurrent-calls=400}.
+ */
+public class AuthLoadTest {
+
+    static final String SESSION_COOKIE_NAME = "BIONICPRO_SESSION";
+    private static final int LOGIN_ATTEMPTS = 20;
+    private static final Semaphore logins = new Semaphore(16);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        String threads = System.getProperty("load.threads", "both");
+        List<String> scenarios = List.of(System.getProperty("load.scenarios", "token,callback,refresh,mixed")
+                .split("\\s*,\\s*"));
+        String mix = System.getProperty("load.mix", "token:70,callback:10,refresh:10,report:10");
+        String reportsUrl = System.getProperty("load.reports-url");
+        int concurrency = Integer.getInteger("load.concurrency", 400);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 20));
+        long keycloakLatency = Long.getLong("load.keycloak-latency-ms", 50);
+        int accessTtlSeconds = Integer.getInteger("load.access-ttl-seconds", 600);
+        long clickHouseLatency = Long.getLong("load.clickhouse-latency-ms", 5);
+        int prosthesesPerUser = Integer.getInteger("load.prostheses-per-user", 2);
+        String output = System.getProperty("load.output");
+        String label = System.getProperty("load.label", "local");
+
+        List<String> modes = "both".equals(threads) ? List.of("platform", "virtual") : List.of(threads);
+        int redisPort = freePort();
+        RedisServer redisServer = new RedisServer(redisPort);
+        redisServer.start();
+
+        boolean embeddedReports = reportsUrl == null && scenarios.contains("mixed")
+                && MixedScenario.parseMix(mix).containsKey(MixedScenario.REPORT);
+        ClickHouseStubDataSource clickHouse = new ClickHouseStubDataSource(clickHouseLatency, prosthesesPerUser);
+
+        List<String> lines = new ArrayList<>();
+        try (KeycloakStub keycloakStub = new KeycloakStub(keycloakLatency, accessTtlSeconds);
+             S3Stub s3Stub = new S3Stub()) {
+            System.out.println(LoadResult.header());
+            for (String mode : modes) {
+                if ("virtual".equals(mode) && Runtime.version().feature() < 21) {
+                    System.out.println("virtual    skipped: virtual threads require Java 21, running on "
+                            + Runtime.version());
+                    continue;
+                }
+
+                try (ConfigurableApplicationContext context = startAuthService(
+                        redisPort, keycloakStub.getUrl(), "virtual".equals(mode), args);
+                     ConfigurableApplicationContext reportsContext = embeddedReports
+                             ? startReportsService(redisPort, keycloakStub.getUrl(), s3Stub.getUrl(), clickHouse,
+                                     "virtual".equals(mode))
+                             : null;
+                     LoadDriver driver = new LoadDriver(concurrency, warmup, duration)) {
+                    String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+                    String modeReportsUrl = reportsContext == null ? reportsUrl
+                            : "http://127.0.0.1:" + reportsContext.getEnvironment().getProperty("local.server.port");
+
+                    for (String scenario : scenarios) {
+                        for (LoadResult result : driver.run(scenario,
+                                scenario(scenario, baseUrl, modeReportsUrl, mix))) {
+                            System.out.println(result.format(mode));
+                            lines.add(result.toCsv(label, mode));
+                        }
+                    }
+                }
+            }
+        } finally {
+            redisServer.stop();
+        }
+
+        if (output != null) {
+            Path path = Path.of(output);
+            if (!Files.exists(path)) {
+                Files.writeString(path, LoadResult.csvHeader() + System.lineSeparator());
+            }
+            Files.write(path, lines, StandardOpenOption.APPEND);
+        }
+        System.exit(0);
+    }
+
+    static LoadDriver.RequestFactory scenario(String name, String baseUrl, String reportsUrl, String mix) {
+        switch (name) {
+            case MixedScenario.TOKEN:
+                return tokenScenario(baseUrl);
+            case MixedScenario.CALLBACK:
+                return callbackScenario(baseUrl);
+            case MixedScenario.REFRESH:
+                return refreshScenario(baseUrl);
+            case "mixed":
+                return new MixedScenario(baseUrl, reportsUrl, mix);
+            default:
+                throw new IllegalArgumentException("Unknown scenario: " + name);
+        }
+    }
+
+    public static ConfigurableApplicationContext startAuthService(int redisPort, String keycloakUrl,
+                                                           boolean virtualThreads, String[] overrides) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.data.redis.host=127.0.0.1",
+                "--spring.data.redis.port=" + redisPort,
+                "--keycloak.url=" + keycloakUrl,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.bionicpro.auth=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.bionicpro.auth.controller=OFF"));
+        args.addAll(List.of(overrides));
+        return new SpringApplicationBuilder(BionicproAuthApplication.class).run(args.toArray(new String[0]));
+    }
+
+    public static ConfigurableApplicationContext startReportsService(int redisPort, String keycloakUrl, String s3Url,
+                                                                     DataSource dataSource, boolean virtualThreads) {
+        // Replaces the ClickHouse data source; the service still builds its own, which stays unused
+        ApplicationContextInitializer<GenericApplicationContext> stubDataSource = context -> context.registerBean(
+                "loadStubDataSource", DataSource.class, () -> dataSource, definition -> definition.setPrimary(true));
+        List<String> args = List.of(
+                "--server.port=0",
+                // The auth service's application.yml shares the classpath, so the reports context reads none
+                "--spring.config.name=bionicpro-reports-load",
+                "--spring.application.name=bionicpro-reports",
+                "--spring.data.redis.host=127.0.0.1",
+                "--spring.data.redis.port=" + redisPort,
+                "--auth.keycloak.url=" + keycloakUrl,
+                "--auth.keycloak.realm=" + KeycloakStub.REALM,
+                "--s3.endpoint=" + s3Url,
+                "--s3.access-key=load",
+                "--s3.secret-key=load-secret",
+                "--s3.bucket=reports",
+                "--s3.region=us-east-1",
+                "--clickhouse.host=127.0.0.1",
+                "--clickhouse.database=reports_db",
+                "--clickhouse.username=load",
+                "--clickhouse.password=load",
+                "--reports.rollups.enabled=false",
+                "--reports.prewarm.enabled=false",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.bionicpro.reports=WARN");
+        return new SpringApplicationBuilder(BionicproReportsApplication.class)
+                .initializers(stubDataSource)
+                .run(args.toArray(new String[0]));
+    }
+
+    static LoadDriver.RequestFactory callbackScenario(String baseUrl) {
+        AtomicLong codes = new AtomicLong();
+        return (httpClient, worker) -> new LoadDriver.RequestFactory.Session() {
+            @Override
+            public HttpRequest nextRequest() {
+                return callbackRequest(baseUrl, "code-" + codes.incrementAndGet());
+            }
+
+            @Override
+            public boolean accept(HttpResponse<String> response) {
+                return response.statusCode() == 200;
+            }
+        };
+    }
+
+    static LoadDriver.RequestFactory tokenScenario(String baseUrl) {
+        return (httpClient, worker) -> {
+            String sessionId = login(httpClient, baseUrl, "token-worker-" + worker);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/token"))
+                    .header("Cookie", SESSION_COOKIE_NAME + "=" + sessionId)
+                    .GET()
+                    .build();
+            return new LoadDriver.RequestFactory.Session() {
+                @Override
+                public HttpRequest nextRequest() {
+                    return request;
+                }
+
+                @Override
+                public boolean accept(HttpResponse<String> response) {
+                    return response.statusCode() == 200;
+                }
+            };
+        };
+    }
+
+    static LoadDriver.RequestFactory refreshScenario(String baseUrl) {
+        return (httpClient, worker) -> new LoadDriver.RequestFactory.Session() {
+            private String sessionId = login(httpClient, baseUrl, "refresh-worker-" + worker);
+
+            @Override
+            public HttpRequest nextRequest() {
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/refresh"))
+                        .header("Cookie", SESSION_COOKIE_NAME + "=" + sessionId)
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+
+            @Override
+            public boolean accept(HttpResponse<String> response) {
+                if (response.statusCode() != 200) {
+                    return false;
+                }
+                try {
+                    sessionId = objectMapper.readTree(response.body()).get("sessionId").asText();
+                    return true;
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+        };
+    }
+
+    static String login(HttpClient httpClient, String baseUrl, String code) throws IOException, InterruptedException {
+        logins.acquire();
+        try {
+            int status = 0;
+            for (int attempt = 0; attempt < LOGIN_ATTEMPTS; attempt++) {
+                HttpResponse<String> response = httpClient.send(callbackRequest(baseUrl, code),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    return objectMapper.readTree(response.body()).get("sessionId").asText();
+                }
+                status = response.statusCode();
+                Thread.sleep(ThreadLocalRandom.current().nextLong(50, 250));
+            }
+            throw new IllegalStateException("Login failed with status " + status);
+        } finally {
+            logins.release();
+        }
+    }
+
+    static HttpRequest callbackRequest(String baseUrl, String code) {
+        String body = "{\"code\":\"" + code + "\",\"code_verifier\":\"load-test-verifier\","
+                + "\"redirect_uri\":\"http://localhost:3000/callback\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/callback"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
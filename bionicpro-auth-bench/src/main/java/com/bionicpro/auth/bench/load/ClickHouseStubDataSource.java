@@ -0,0 +1,255 @@
+package com.bionicpro.auth.bench.load;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * JDBC stand-in for the ClickHouse queries bionicpro-reports runs: report rows for
+ * every day, week or month of the requested range and {@code prosthesesPerUser}
+ * prostheses, mart load times fixed at construction, and empty results for
+ * anything else. Every statement waits {@code latencyMillis} before answering.
+ */
+public class ClickHouseStubDataSource implements DataSource {
+
+    private static final int MART_MONTHS = 24;
+
+    private final long latencyMillis;
+    private final int prosthesesPerUser;
+    private final Timestamp loadedAt = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    private final AtomicLong reportQueries = new AtomicLong();
+
+    public ClickHouseStubDataSource(long latencyMillis, int prosthesesPerUser) {
+        this.latencyMillis = latencyMillis;
+        this.prosthesesPerUser = prosthesesPerUser;
+    }
+
+    public long getReportQueries() {
+        return reportQueries.get();
+    }
+
+    @Override
+    public Connection getConnection() {
+        return proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+            case "prepareStatement" -> statement((String) args[0]);
+            case "createStatement" -> statement(null);
+            case "isValid" -> true;
+            case "getAutoCommit" -> true;
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) {
+        return getConnection();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        throw new SQLException("Not a wrapper for " + iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return false;
+    }
+
+    private PreparedStatement statement(String preparedSql) {
+        Map<Integer, Object> parameters = new HashMap<>();
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], args[1]);
+                return null;
+            }
+            switch (name) {
+                case "executeQuery":
+                    pause();
+                    return resultSet(query(args == null ? preparedSql : (String) args[0], parameters));
+                case "execute":
+                    pause();
+                    return false;
+                case "executeUpdate":
+                    pause();
+                    return 0;
+                case "executeBatch":
+                    pause();
+                    return new int[0];
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private List<Object[]> query(String sql, Map<Integer, Object> parameters) {
+        if (sql.contains("WHERE user_id = ?")) {
+            reportQueries.incrementAndGet();
+            return reportRows(sql, (String) parameters.get(1),
+                    (LocalDate) parameters.get(2), (LocalDate) parameters.get(3));
+        }
+        if (sql.contains("toStartOfMonth(report_date) AS month")) {
+            List<Object[]> rows = new ArrayList<>(MART_MONTHS);
+            LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+            for (int i = 0; i < MART_MONTHS; i++) {
+                rows.add(new Object[]{month.minusMonths(i), loadedAt});
+            }
+            return rows;
+        }
+        if (sql.startsWith("SELECT max(created_at)")) {
+            return List.<Object[]>of(new Object[]{loadedAt});
+        }
+        return List.of();
+    }
+
+    private List<Object[]> reportRows(String sql, String userId, LocalDate startDate, LocalDate endDate) {
+        LocalDate first;
+        ChronoUnit step;
+        if (sql.contains("prosthesis_reports_weekly")) {
+            first = startDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            step = ChronoUnit.WEEKS;
+        } else if (sql.contains("prosthesis_reports_monthly")) {
+            first = startDate.withDayOfMonth(1);
+            step = ChronoUnit.MONTHS;
+        } else {
+            first = startDate;
+            step = ChronoUnit.DAYS;
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int prosthesis = 0; prosthesis < prosthesesPerUser; prosthesis++) {
+            String prosthesisId = userId + "-prosthesis-" + prosthesis;
+            for (LocalDate period = first; !period.isAfter(endDate); period = period.plus(1, step)) {
+                int seed = (userId.hashCode() * 31 + prosthesis) * 31 + (int) period.toEpochDay();
+                LocalDateTime dayStart = period.atStartOfDay();
+                rows.add(new Object[]{
+                        userId,
+                        userId + "@example.com",
+                        "Load User",
+                        prosthesisId,
+                        "BionicArm-" + (prosthesis + 1),
+                        LocalDate.of(2023, 1, 1),
+                        period,
+                        (long) Math.floorMod(seed, 200),
+                        (long) Math.floorMod(seed, 600),
+                        50f + Math.floorMod(seed, 50),
+                        (long) Math.floorMod(seed, 1000),
+                        Timestamp.valueOf(dayStart.plusHours(18)),
+                        Timestamp.valueOf(dayStart),
+                        Timestamp.valueOf(dayStart.plusDays(1).minusSeconds(1))
+                });
+            }
+        }
+        return rows;
+    }
+
+    private ResultSet resultSet(List<Object[]> rows) {
+        int[] cursor = {-1};
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "next":
+                    return ++cursor[0] < rows.size();
+                case "getString":
+                    return String.valueOf(rows.get(cursor[0])[(Integer) args[0] - 1]);
+                case "getObject":
+                    return rows.get(cursor[0])[(Integer) args[0] - 1];
+                case "getTimestamp":
+                    return (Timestamp) rows.get(cursor[0])[(Integer) args[0] - 1];
+                case "getLong":
+                    return ((Number) rows.get(cursor[0])[(Integer) args[0] - 1]).longValue();
+                case "getInt":
+                    return ((Number) rows.get(cursor[0])[(Integer) args[0] - 1]).intValue();
+                case "getFloat":
+                    return ((Number) rows.get(cursor[0])[(Integer) args[0] - 1]).floatValue();
+                case "getDouble":
+                    return ((Number) rows.get(cursor[0])[(Integer) args[0] - 1]).doubleValue();
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private void pause() throws InterruptedException {
+        if (latencyMillis > 0) {
+            Thread.sleep(latencyMillis);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ClickHouseStubDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + " stub";
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,213 @@
+package com.bionicpro.auth.bench.load;
+
+import com.bionicpro.auth.bench.BenchmarkTokens;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for Keycloak's {@code /protocol/openid-connect/token} endpoint that
+ * answers both grant types after a fixed latency. Access tokens are RS256-signed
+ * for realm {@value #REALM}, with the key published at
+ * {@code /realms/reports-realm/protocol/openid-connect/certs}; each authorization
+ * code logs in its own user, and a refresh keeps the user of the refresh token.
+ */
+public class KeycloakStub implements AutoCloseable {
+
+    static {
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "4096");
+    }
+
+    public static final String REALM = "reports-realm";
+    private static final String KEY_ID = "load-stub";
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final int accessTokenTtlSeconds;
+    private final AtomicLong codeExchanges = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final KeyPair keyPair;
+
+    public KeycloakStub(long latencyMillis, int accessTokenTtlSeconds) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.accessTokenTtlSeconds = accessTokenTtlSeconds;
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            this.keyPair = generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to generate the signing key", e);
+        }
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "keycloak-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String getIssuer() {
+        return getUrl() + "/realms/" + REALM;
+    }
+
+    public long getCodeExchanges() {
+        return codeExchanges.get();
+    }
+
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            String path = exchange.getRequestURI().getPath();
+            if ("GET".equals(exchange.getRequestMethod())
+                    && path.equals("/realms/" + REALM + "/protocol/openid-connect/certs")) {
+                send(exchange, jwks());
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod()) || !path.endsWith("/protocol/openid-connect/token")) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            Map<String, String> form = form(body);
+            String subject;
+            if ("refresh_token".equals(form.get("grant_type"))) {
+                refreshes.incrementAndGet();
+                subject = subject(form.get("refresh_token"));
+            } else if ("authorization_code".equals(form.get("grant_type"))) {
+                codeExchanges.incrementAndGet();
+                subject = UUID.nameUUIDFromBytes(form.getOrDefault("code", "").getBytes(StandardCharsets.UTF_8))
+                        .toString();
+            } else {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+
+            String sessionState = UUID.randomUUID().toString();
+            send(exchange, "{\"access_token\":\"" + accessToken(subject, sessionState)
+                    + "\",\"refresh_token\":\"" + BenchmarkTokens.jwt(900, accessTokenTtlSeconds * 10L, subject)
+                    + "\",\"expires_in\":" + accessTokenTtlSeconds
+                    + ",\"refresh_expires_in\":" + accessTokenTtlSeconds * 10L
+                    + ",\"token_type\":\"Bearer\",\"not-before-policy\":0"
+                    + ",\"session_state\":\"" + sessionState
+                    + "\",\"scope\":\"openid profile email\"}");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String accessToken(String subject, String sessionState) {
+        long now = System.currentTimeMillis() / 1000;
+        String header = "{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"" + KEY_ID + "\"}";
+        String payload = "{\"exp\":" + (now + accessTokenTtlSeconds) + ",\"iat\":" + now
+                + ",\"jti\":\"" + UUID.randomUUID() + "\",\"iss\":\"" + getIssuer()
+                + "\",\"aud\":\"account\",\"sub\":\"" + subject + "\",\"typ\":\"Bearer\""
+                + ",\"azp\":\"reports-frontend\",\"session_state\":\"" + sessionState + "\""
+                + ",\"realm_access\":{\"roles\":[\"prothetic_user\",\"offline_access\",\"uma_authorization\"]}"
+                + ",\"scope\":\"openid profile email\",\"email_verified\":true"
+                + ",\"preferred_username\":\"" + subject + "\",\"email\":\"" + subject + "@example.com\"}";
+        String signingInput = BASE64_URL.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+                + BASE64_URL.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(keyPair.getPrivate());
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + BASE64_URL.encodeToString(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign the access token", e);
+        }
+    }
+
+    private String jwks() {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        return "{\"keys\":[{\"kid\":\"" + KEY_ID + "\",\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\""
+                + ",\"n\":\"" + unsigned(publicKey.getModulus()) + "\",\"e\":\""
+                + unsigned(publicKey.getPublicExponent()) + "\"}]}";
+    }
+
+    private static String unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return BASE64_URL.encodeToString(bytes);
+    }
+
+    private static String subject(String token) throws IOException {
+        String[] parts = token == null ? new String[0] : token.split("\\.");
+        if (parts.length < 2) {
+            return "bench-user";
+        }
+        return objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1])).path("sub").asText("bench-user");
+    }
+
+    private static Map<String, String> form(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static void send(HttpExchange exchange, String body) throws IOException {
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+}
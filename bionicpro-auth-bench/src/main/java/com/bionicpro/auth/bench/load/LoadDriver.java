@@ -0,0 +1,138 @@
+package com.bionicpro.auth.bench.load;
+
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator: each of {@code concurrency} workers sends its next
+ * request as soon as the previous one completes.
+ */
+public class LoadDriver implements AutoCloseable {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final ExecutorService clientExecutor;
+    private final HttpClient httpClient;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+
+    public LoadDriver(int concurrency, Duration warmup, Duration duration) {
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.clientExecutor = Executors.newFixedThreadPool(Math.max(4, concurrency / 8));
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public List<LoadResult> run(String scenario, RequestFactory requestFactory) throws Exception {
+        Recorder recorder = newRecorder();
+        Map<String, Recorder> operationRecorders = new ConcurrentHashMap<>();
+        AtomicLong errors = new AtomicLong();
+        Map<String, AtomicLong> operationErrors = new ConcurrentHashMap<>();
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int worker = i;
+            futures.add(workers.submit(() -> {
+                RequestFactory.Session session = requestFactory.open(httpClient, worker);
+                while (System.nanoTime() < end) {
+                    HttpRequest request = session.nextRequest();
+                    String operation = session.operation();
+                    long start = System.nanoTime();
+                    boolean success;
+                    try {
+                        HttpResponse<String> response = httpClient.send(
+                                request, HttpResponse.BodyHandlers.ofString());
+                        success = session.accept(response);
+                    } catch (Exception e) {
+                        success = false;
+                    }
+                    long finished = System.nanoTime();
+                    if (start >= warmupEnd) {
+                        long latency = Math.min(finished - start, MAX_LATENCY_NANOS);
+                        recorder.recordValue(latency);
+                        if (!success) {
+                            errors.incrementAndGet();
+                        }
+                        if (operation != null) {
+                            operationRecorders.computeIfAbsent(operation, key -> newRecorder()).recordValue(latency);
+                            if (!success) {
+                                operationErrors.computeIfAbsent(operation, key -> new AtomicLong()).incrementAndGet();
+                            }
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        recorder.getIntervalHistogram();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        List<LoadResult> results = new ArrayList<>();
+        results.add(new LoadResult(scenario, concurrency, duration, recorder.getIntervalHistogram(), errors.get()));
+        for (Map.Entry<String, Recorder> entry : new TreeMap<>(operationRecorders).entrySet()) {
+            AtomicLong failed = operationErrors.get(entry.getKey());
+            results.add(new LoadResult(scenario + "/" + entry.getKey(), concurrency, duration,
+                    entry.getValue().getIntervalHistogram(), failed == null ? 0 : failed.get()));
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        clientExecutor.shutdownNow();
+    }
+
+    private static Recorder newRecorder() {
+        return new Recorder(MAX_LATENCY_NANOS, 3);
+    }
+
+    public interface RequestFactory {
+
+        Session open(HttpClient httpClient, int worker) throws Exception;
+
+        interface Session {
+
+            HttpRequest nextRequest();
+
+            boolean accept(HttpResponse<String> response);
+
+            default String operation() {
+                return null;
+            }
+        }
+    }
+}
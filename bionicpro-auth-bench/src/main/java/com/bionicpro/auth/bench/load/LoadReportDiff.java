@@ -0,0 +1,81 @@
+package com.bionicpro.auth.bench.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two CSV files written by {@link AuthLoadTest} ({@code load.output}),
+ * or two labels in one file, and prints throughput and p99 changes per
+ * threads/scenario/concurrency row.
+ *
+ * <p>Usage: {@code LoadReportDiff baseline.csv candidate.csv} or
+ * {@code LoadReportDiff results.csv baselineLabel candidateLabel}.
+ */
+public class LoadReportDiff {
+
+    private static final int LABEL = 0;
+    private static final int THREADS = 1;
+    private static final int SCENARIO = 2;
+    private static final int CONCURRENCY = 3;
+    private static final int THROUGHPUT = 6;
+    private static final int P99 = 8;
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String[]> baseline;
+        Map<String, String[]> candidate;
+        if (args.length == 2) {
+            baseline = read(Path.of(args[0]), null);
+            candidate = read(Path.of(args[1]), null);
+        } else if (args.length == 3) {
+            baseline = read(Path.of(args[0]), args[1]);
+            candidate = read(Path.of(args[0]), args[2]);
+        } else {
+            System.err.println("Usage: LoadReportDiff baseline.csv candidate.csv");
+            System.err.println("       LoadReportDiff results.csv baselineLabel candidateLabel");
+            System.exit(2);
+            return;
+        }
+
+        System.out.println(String.format(Locale.ROOT, "%-10s %-24s %6s %10s %10s %8s %9s %9s %8s",
+                "threads", "scenario", "conc", "base req/s", "new req/s", "delta", "base p99", "new p99", "delta"));
+        for (Map.Entry<String, String[]> entry : candidate.entrySet()) {
+            String[] before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            String[] after = entry.getValue();
+            double throughputBefore = Double.parseDouble(before[THROUGHPUT]);
+            double throughputAfter = Double.parseDouble(after[THROUGHPUT]);
+            double p99Before = Double.parseDouble(before[P99]);
+            double p99After = Double.parseDouble(after[P99]);
+            System.out.println(String.format(Locale.ROOT, "%-10s %-24s %6s %10.1f %10.1f %+7.1f%% %9.2f %9.2f %+7.1f%%",
+                    after[THREADS], after[SCENARIO], after[CONCURRENCY],
+                    throughputBefore, throughputAfter, change(throughputBefore, throughputAfter),
+                    p99Before, p99After, change(p99Before, p99After)));
+        }
+    }
+
+    private static Map<String, String[]> read(Path path, String label) throws IOException {
+        Map<String, String[]> rows = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(path);
+        for (String line : lines) {
+            if (line.isBlank() || line.startsWith("label,")) {
+                continue;
+            }
+            String[] columns = line.split(",");
+            if (label == null || label.equals(columns[LABEL])) {
+                rows.put(columns[THREADS] + '|' + columns[SCENARIO] + '|' + columns[CONCURRENCY], columns);
+            }
+        }
+        return rows;
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+}
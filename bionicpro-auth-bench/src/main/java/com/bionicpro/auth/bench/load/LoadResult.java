@@ -0,0 +1,68 @@
+package com.bionicpro.auth.bench.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Locale;
+
+public class LoadResult {
+
+    private final String scenario;
+    private final int concurrency;
+    private final Duration duration;
+    private final Histogram histogram;
+    private final long errors;
+
+    public LoadResult(String scenario, int concurrency, Duration duration, Histogram histogram, long errors) {
+        this.scenario = scenario;
+        this.concurrency = concurrency;
+        this.duration = duration;
+        this.histogram = histogram;
+        this.errors = errors;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public long getRequests() {
+        return histogram.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getThroughput() {
+        return histogram.getTotalCount() / (duration.toMillis() / 1000.0);
+    }
+
+    public double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000_000.0;
+    }
+
+    public double maxMillis() {
+        return histogram.getMaxValue() / 1_000_000.0;
+    }
+
+    public static String header() {
+        return String.format(Locale.ROOT, "%-10s %-24s %6s %9s %7s %10s %9s %9s %9s %9s",
+                "threads", "scenario", "conc", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    public String format(String threads) {
+        return String.format(Locale.ROOT, "%-10s %-24s %6d %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                threads, scenario, concurrency, getRequests(), errors, getThroughput(),
+                percentileMillis(50), percentileMillis(99), percentileMillis(99.9), maxMillis());
+    }
+
+    public static String csvHeader() {
+        return "label,threads,scenario,concurrency,requests,errors,throughput,p50_ms,p99_ms,p999_ms,max_ms";
+    }
+
+    public String toCsv(String label, String threads) {
+        return String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f",
+                label, threads, scenario, concurrency, getRequests(), errors, getThroughput(),
+                percentileMillis(50), percentileMillis(99), percentileMillis(99.9), maxMillis());
+    }
+}
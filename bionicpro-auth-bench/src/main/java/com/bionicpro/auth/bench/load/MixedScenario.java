@@ -0,0 +1,153 @@
+package com.bionicpro.auth.bench.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Weighted mix of user operations, e.g. {@code token:70,callback:10,refresh:10,report:10}.
+ * Each worker keeps its own session: {@code callback} and {@code refresh} replace
+ * the session id, {@code token} keeps the access token that {@code report} sends
+ * to the reports service as a bearer token. {@code report} is dropped from the
+ * mix when no reports URL is configured.
+ */
+public class MixedScenario implements LoadDriver.RequestFactory {
+
+    public static final String CALLBACK = "callback";
+    public static final String TOKEN = "token";
+    public static final String REFRESH = "refresh";
+    public static final String REPORT = "report";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private final String authUrl;
+    private final String reportsUrl;
+    private final String[] operations;
+    private final int[] cumulativeWeights;
+    private final AtomicLong codes = new AtomicLong();
+
+    public MixedScenario(String authUrl, String reportsUrl, String mix) {
+        this.authUrl = authUrl;
+        this.reportsUrl = reportsUrl;
+
+        Map<String, Integer> weights = parseMix(mix);
+        if (reportsUrl == null) {
+            weights.remove(REPORT);
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty: " + mix);
+        }
+        this.operations = weights.keySet().toArray(new String[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    @Override
+    public Session open(HttpClient httpClient, int worker) throws Exception {
+        return new UserSession(AuthLoadTest.login(httpClient, authUrl, "mixed-worker-" + worker));
+    }
+
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            String operation = parts[0].trim();
+            if (!CALLBACK.equals(operation) && !TOKEN.equals(operation)
+                    && !REFRESH.equals(operation) && !REPORT.equals(operation)) {
+                throw new IllegalArgumentException("Unknown operation in mix: " + operation);
+            }
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight > 0) {
+                weights.put(operation, weight);
+            }
+        }
+        return weights;
+    }
+
+    private String pick() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private class UserSession implements Session {
+        private String sessionId;
+        private String accessToken;
+        private String operation;
+
+        UserSession(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public HttpRequest nextRequest() {
+            operation = pick();
+            if (REPORT.equals(operation) && accessToken == null) {
+                operation = TOKEN;
+            }
+
+            switch (operation) {
+                case CALLBACK:
+                    return AuthLoadTest.callbackRequest(authUrl, "mixed-code-" + codes.incrementAndGet());
+                case REFRESH:
+                    return HttpRequest.newBuilder(URI.create(authUrl + "/api/auth/refresh"))
+                            .header("Cookie", AuthLoadTest.SESSION_COOKIE_NAME + "=" + sessionId)
+                            .POST(HttpRequest.BodyPublishers.noBody())
+                            .build();
+                case REPORT:
+                    return HttpRequest.newBuilder(URI.create(reportsUrl + "/api/reports"))
+                            .header("Authorization", "Bearer " + accessToken)
+                            .GET()
+                            .build();
+                default:
+                    return HttpRequest.newBuilder(URI.create(authUrl + "/api/auth/token"))
+                            .header("Cookie", AuthLoadTest.SESSION_COOKIE_NAME + "=" + sessionId)
+                            .GET()
+                            .build();
+            }
+        }
+
+        @Override
+        public boolean accept(HttpResponse<String> response) {
+            if (response.statusCode() != 200) {
+                return false;
+            }
+            if (REPORT.equals(operation)) {
+                return true;
+            }
+
+            try {
+                JsonNode body = objectMapper.readTree(response.body());
+                if (TOKEN.equals(operation)) {
+                    accessToken = body.path("access_token").asText(null);
+                } else {
+                    sessionId = body.path("sessionId").asText(sessionId);
+                }
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String operation() {
+            return operation;
+        }
+    }
+}
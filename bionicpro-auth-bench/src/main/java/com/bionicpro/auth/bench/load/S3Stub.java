@@ -0,0 +1,257 @@
+package com.bionicpro.auth.bench.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory stand-in for the MinIO calls bionicpro-reports makes: bucket
+ * check and creation, object put/get/stat, ListObjectsV2 and multipart
+ * uploads, path-style, without signature checks.
+ */
+public class S3Stub implements AutoCloseable {
+
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter XML_DATE =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SortedMap<String, StoredObject> objects = new ConcurrentSkipListMap<>();
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+
+    public S3Stub() throws IOException {
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "s3-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int getObjectCount() {
+        return objects.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            String path = exchange.getRequestURI().getRawPath();
+            int slash = path.indexOf('/', 1);
+            String key = slash < 0 ? "" : URLDecoder.decode(path.substring(slash + 1), StandardCharsets.UTF_8);
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+
+            if (key.isEmpty()) {
+                if ("GET".equals(method) && query.containsKey("location")) {
+                    xml(exchange, "<LocationConstraint/>");
+                } else if ("GET".equals(method)) {
+                    list(exchange, query.getOrDefault("prefix", ""));
+                } else {
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                return;
+            }
+
+            switch (method) {
+                case "PUT" -> put(exchange, key, query, body);
+                case "POST" -> post(exchange, key, query);
+                case "GET", "HEAD" -> get(exchange, key, "HEAD".equals(method));
+                case "DELETE" -> {
+                    if (query.containsKey("uploadId")) {
+                        uploads.remove(query.get("uploadId"));
+                    } else {
+                        objects.remove(key);
+                    }
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void put(HttpExchange exchange, String key, Map<String, String> query, byte[] body) throws IOException {
+        String etag = "\"" + UUID.randomUUID().toString().replace("-", "") + "\"";
+        if (query.containsKey("uploadId")) {
+            Upload upload = uploads.get(query.get("uploadId"));
+            if (upload == null) {
+                error(exchange, 404, "NoSuchUpload");
+                return;
+            }
+            upload.parts.put(Integer.parseInt(query.get("partNumber")), body);
+        } else {
+            objects.put(key, new StoredObject(body, exchange.getRequestHeaders().getFirst("Content-Type"),
+                    exchange.getRequestHeaders().getFirst("Content-Encoding")));
+        }
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void post(HttpExchange exchange, String key, Map<String, String> query) throws IOException {
+        if (query.containsKey("uploads")) {
+            String uploadId = UUID.randomUUID().toString();
+            uploads.put(uploadId, new Upload(exchange.getRequestHeaders().getFirst("Content-Type"),
+                    exchange.getRequestHeaders().getFirst("Content-Encoding")));
+            xml(exchange, "<InitiateMultipartUploadResult><Bucket>bucket</Bucket><Key>" + escape(key)
+                    + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+            return;
+        }
+        Upload upload = uploads.remove(query.get("uploadId"));
+        if (upload == null) {
+            error(exchange, 404, "NoSuchUpload");
+            return;
+        }
+        int size = 0;
+        for (byte[] part : upload.parts.values()) {
+            size += part.length;
+        }
+        byte[] content = new byte[size];
+        int offset = 0;
+        for (byte[] part : upload.parts.values()) {
+            System.arraycopy(part, 0, content, offset, part.length);
+            offset += part.length;
+        }
+        objects.put(key, new StoredObject(content, upload.contentType, upload.contentEncoding));
+        xml(exchange, "<CompleteMultipartUploadResult><Bucket>bucket</Bucket><Key>" + escape(key)
+                + "</Key><ETag>\"" + UUID.randomUUID().toString().replace("-", "")
+                + "\"</ETag></CompleteMultipartUploadResult>");
+    }
+
+    private void get(HttpExchange exchange, String key, boolean head) throws IOException {
+        StoredObject object = objects.get(key);
+        if (object == null) {
+            if (head) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                error(exchange, 404, "NoSuchKey");
+            }
+            return;
+        }
+        exchange.getResponseHeaders().set("ETag", "\"" + Integer.toHexString(object.content.length) + "\"");
+        exchange.getResponseHeaders().set("Last-Modified", HTTP_DATE.format(object.lastModified));
+        exchange.getResponseHeaders().set("Content-Type",
+                object.contentType == null ? "application/octet-stream" : object.contentType);
+        if (object.contentEncoding != null) {
+            exchange.getResponseHeaders().set("Content-Encoding", object.contentEncoding);
+        }
+        if (head) {
+            exchange.getResponseHeaders().set("Content-Length", Integer.toString(object.content.length));
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(200, object.content.length == 0 ? -1 : object.content.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(object.content);
+        }
+    }
+
+    private void list(HttpExchange exchange, String prefix) throws IOException {
+        StringBuilder result = new StringBuilder("<ListBucketResult><Name>bucket</Name><Prefix>")
+                .append(escape(prefix)).append("</Prefix><IsTruncated>false</IsTruncated>");
+        for (Map.Entry<String, StoredObject> entry : objects.tailMap(prefix).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            result.append("<Contents><Key>").append(escape(entry.getKey()))
+                    .append("</Key><LastModified>").append(XML_DATE.format(entry.getValue().lastModified))
+                    .append("</LastModified><ETag>\"0\"</ETag><Size>").append(entry.getValue().content.length)
+                    .append("</Size><StorageClass>STANDARD</StorageClass></Contents>");
+        }
+        xml(exchange, result.append("</ListBucketResult>").toString());
+    }
+
+    private static void error(HttpExchange exchange, int status, String code) throws IOException {
+        byte[] response = ("<Error><Code>" + code + "</Code><Message>" + code + "</Message></Error>")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private static void xml(HttpExchange exchange, String body) throws IOException {
+        byte[] response = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            query.put(name, eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static final class StoredObject {
+        private final byte[] content;
+        private final String contentType;
+        private final String contentEncoding;
+        private final Instant lastModified = Instant.now();
+
+        StoredObject(byte[] content, String contentType, String contentEncoding) {
+            this.content = content;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+        }
+    }
+
+    private static final class Upload {
+        private final String contentType;
+        private final String contentEncoding;
+        private final SortedMap<Integer, byte[]> parts = new ConcurrentSkipListMap<>();
+
+        Upload(String contentType, String contentEncoding) {
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+        }
+    }
+}
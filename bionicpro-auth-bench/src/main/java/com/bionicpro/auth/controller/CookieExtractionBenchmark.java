@@ -0,0 +1,106 @@
+package com.bionicpro.auth.controller;
+
+import com.bionicpro.auth.service.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.apache.tomcat.util.buf.MessageBytes;
+import org.apache.tomcat.util.http.MimeHeaders;
+import org.apache.tomcat.util.http.Rfc6265CookieProcessor;
+import org.apache.tomcat.util.http.ServerCookie;
+import org.apache.tomcat.util.http.ServerCookies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of finding the session cookie on {@code /api/auth/token}: Tomcat's
+ * RFC 6265 header parsing plus {@link AuthController#getSessionIdFromCookie}.
+ * Lives in the controller package to reach the package-private lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CookieExtractionBenchmark {
+
+    private static final String SESSION_COOKIE_NAME = "BIONICPRO_SESSION";
+
+    @Param({"session-only", "with-analytics", "missing"})
+    public String cookies;
+
+    private AuthController authController;
+    private MockHttpServletRequest request;
+    private String cookieHeader;
+    private Rfc6265CookieProcessor cookieProcessor;
+
+    @Setup
+    public void setup() {
+        authController = new AuthController(null, null, new AuthMetrics(new SimpleMeterRegistry()));
+        cookieProcessor = new Rfc6265CookieProcessor();
+
+        List<Cookie> cookieList = new ArrayList<>();
+        if (!"session-only".equals(cookies)) {
+            cookieList.add(new Cookie("_ga", "GA1.1.1234567890.1700000000"));
+            cookieList.add(new Cookie("_gid", "GA1.1.987654321.1700000000"));
+            cookieList.add(new Cookie("_ym_uid", "1700000000123456789"));
+            cookieList.add(new Cookie("_ym_d", "1700000000"));
+            cookieList.add(new Cookie("locale", "ru-RU"));
+            cookieList.add(new Cookie("theme", "dark"));
+            cookieList.add(new Cookie("consent", "analytics%3Dtrue%26ads%3Dfalse"));
+            cookieList.add(new Cookie("XSRF-TOKEN", UUID.randomUUID().toString()));
+        }
+        if (!"missing".equals(cookies)) {
+            cookieList.add(new Cookie(SESSION_COOKIE_NAME, UUID.randomUUID().toString()));
+        }
+
+        request = new MockHttpServletRequest("GET", "/api/auth/token");
+        request.setCookies(cookieList.toArray(new Cookie[0]));
+        StringBuilder header = new StringBuilder();
+        for (Cookie cookie : cookieList) {
+            if (header.length() > 0) {
+                header.append("; ");
+            }
+            header.append(cookie.getName()).append('=').append(cookie.getValue());
+        }
+        cookieHeader = header.toString();
+    }
+
+    @Benchmark
+    public String lookup() {
+        return authController.getSessionIdFromCookie(request);
+    }
+
+    @Benchmark
+    public String parseHeaderAndLookup() {
+        MimeHeaders headers = new MimeHeaders();
+        MessageBytes value = headers.addValue("Cookie");
+        value.setString(cookieHeader);
+        value.toBytes();
+        ServerCookies serverCookies = new ServerCookies(4);
+        cookieProcessor.parseCookieHeader(headers, serverCookies);
+
+        for (int i = 0; i < serverCookies.getCookieCount(); i++) {
+            ServerCookie cookie = serverCookies.getCookie(i);
+            if (SESSION_COOKIE_NAME.equals(cookie.getName().toString())) {
+                return cookie.getValue().toString();
+            }
+        }
+        return null;
+    }
+}
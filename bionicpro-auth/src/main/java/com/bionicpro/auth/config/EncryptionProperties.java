@@ -0,0 +1,48 @@
+package com.bionicpro.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "encryption")
+public class EncryptionProperties {
+    private String key;
+    private int keyVersion = 1;
+    private Map<Integer, String> previousKeys = new HashMap<>();
+    private int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public int getKeyVersion() {
+        return keyVersion;
+    }
+
+    public void setKeyVersion(int keyVersion) {
+        this.keyVersion = keyVersion;
+    }
+
+    public Map<Integer, String> getPreviousKeys() {
+        return previousKeys;
+    }
+
+    public void setPreviousKeys(Map<Integer, String> previousKeys) {
+        this.previousKeys = previousKeys;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+}
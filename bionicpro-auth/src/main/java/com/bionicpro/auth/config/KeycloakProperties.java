@@ -10,6 +10,7 @@ public class KeycloakProperties {
     private String realm;
     private String clientId;
     private String clientSecret;
+    private Http http = new Http();
 
     public String getUrl() {
         return url;
@@ -42,5 +43,132 @@ public class KeycloakProperties {
     public void setClientSecret(String clientSecret) {
         this.clientSecret = clientSecret;
     }
-}
 
+    public Http getHttp() {
+        return http;
+    }
+
+    public void setHttp(Http http) {
+        this.http = http;
+    }
+
+    public static class Http {
+        private int maxConnections = 100;
+        private int maxConnectionsPerRoute = 50;
+        private long connectTimeoutMs = 2000;
+        private long responseTimeoutMs = 5000;
+        private long connectionRequestTimeoutMs = 1000;
+        private long keepAliveSeconds = 30;
+        private long validateAfterInactivityMs = 2000;
+        private long idleEvictSeconds = 60;
+        private int maxConcurrentCalls = 50;
+        private long maxWaitMs = 500;
+        private float failureRateThreshold = 50;
+        private long slowCallThresholdMs = 3000;
+        private long openStateSeconds = 30;
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getMaxConnectionsPerRoute() {
+            return maxConnectionsPerRoute;
+        }
+
+        public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        }
+
+        public long getConnectTimeoutMs() {
+            return connectTimeoutMs;
+        }
+
+        public void setConnectTimeoutMs(long connectTimeoutMs) {
+            this.connectTimeoutMs = connectTimeoutMs;
+        }
+
+        public long getResponseTimeoutMs() {
+            return responseTimeoutMs;
+        }
+
+        public void setResponseTimeoutMs(long responseTimeoutMs) {
+            this.responseTimeoutMs = responseTimeoutMs;
+        }
+
+        public long getConnectionRequestTimeoutMs() {
+            return connectionRequestTimeoutMs;
+        }
+
+        public void setConnectionRequestTimeoutMs(long connectionRequestTimeoutMs) {
+            this.connectionRequestTimeoutMs = connectionRequestTimeoutMs;
+        }
+
+        public long getKeepAliveSeconds() {
+            return keepAliveSeconds;
+        }
+
+        public void setKeepAliveSeconds(long keepAliveSeconds) {
+            this.keepAliveSeconds = keepAliveSeconds;
+        }
+
+        public long getValidateAfterInactivityMs() {
+            return validateAfterInactivityMs;
+        }
+
+        public void setValidateAfterInactivityMs(long validateAfterInactivityMs) {
+            this.validateAfterInactivityMs = validateAfterInactivityMs;
+        }
+
+        public long getIdleEvictSeconds() {
+            return idleEvictSeconds;
+        }
+
+        public void setIdleEvictSeconds(long idleEvictSeconds) {
+            this.idleEvictSeconds = idleEvictSeconds;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public long getMaxWaitMs() {
+            return maxWaitMs;
+        }
+
+        public void setMaxWaitMs(long maxWaitMs) {
+            this.maxWaitMs = maxWaitMs;
+        }
+
+        public float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public long getSlowCallThresholdMs() {
+            return slowCallThresholdMs;
+        }
+
+        public void setSlowCallThresholdMs(long slowCallThresholdMs) {
+            this.slowCallThresholdMs = slowCallThresholdMs;
+        }
+
+        public long getOpenStateSeconds() {
+            return openStateSeconds;
+        }
+
+        public void setOpenStateSeconds(long openStateSeconds) {
+            this.openStateSeconds = openStateSeconds;
+        }
+    }
+}
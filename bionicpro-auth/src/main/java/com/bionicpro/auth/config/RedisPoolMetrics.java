@@ -0,0 +1,41 @@
+package com.bionicpro.auth.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.commonspool2.CommonsObjectPool2Metrics;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+@Component
+public class RedisPoolMetrics implements MeterBinder {
+
+    private static final String POOL_QUERY = "org.apache.commons.pool2:type=GenericObjectPool,*";
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CommonsObjectPool2Metrics().bindTo(registry);
+        Gauge.builder("redis.pool.saturation", this, RedisPoolMetrics::saturation)
+                .description("Share of pooled Redis connections currently borrowed")
+                .register(registry);
+    }
+
+    private double saturation() {
+        try {
+            long active = 0;
+            long max = 0;
+            for (ObjectName name : mBeanServer.queryNames(new ObjectName(POOL_QUERY), null)) {
+                active += ((Number) mBeanServer.getAttribute(name, "NumActive")).longValue();
+                max += ((Number) mBeanServer.getAttribute(name, "MaxTotal")).longValue();
+            }
+            return max > 0 ? (double) active / max : 0;
+        } catch (JMException e) {
+            return Double.NaN;
+        }
+    }
+}
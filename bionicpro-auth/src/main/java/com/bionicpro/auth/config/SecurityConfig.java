@@ -1,5 +1,6 @@
 package com.bionicpro.auth.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -17,6 +18,16 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private final int serverPort;
+    private final int managementPort;
+
+    public SecurityConfig(
+            @Value("${server.port:8080}") int serverPort,
+            @Value("${management.server.port:-1}") int managementPort) {
+        this.serverPort = serverPort;
+        this.managementPort = managementPort;
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -27,6 +38,10 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/health").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                // Metrics and the Prometheus scrape are only reachable on the internal management port
+                .requestMatchers(request -> managementPort > 0 && managementPort != serverPort
+                        && request.getLocalPort() == managementPort).permitAll()
                 .anyRequest().authenticated()
             );
         
@@ -0,0 +1,168 @@
+package com.bionicpro.auth.config;
+
+import com.bionicpro.auth.model.SessionData;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+public class SessionDataRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB5;
+    static final byte FORMAT_VERSION = 3;
+    static final byte FORMAT_VERSION_WITHOUT_ISSUED_AT = 2;
+    static final byte FORMAT_VERSION_WITHOUT_EXPIRY = 1;
+
+    private static final byte FIELD_NULL = 0;
+    private static final byte FIELD_UTF8 = 1;
+    private static final byte FIELD_JWT = 2;
+    private static final byte FIELD_PREFIXED_BASE64 = 3;
+    private static final char BASE64_PREFIX = '$';
+
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!(value instanceof SessionData sessionData)) {
+            return jsonSerializer.serialize(value);
+        }
+
+        byte[][] accessToken = encodeField(sessionData.getAccessToken());
+        byte[][] refreshToken = encodeField(sessionData.getRefreshToken());
+        ByteBuffer buffer = ByteBuffer.allocate(
+                2 + 3 * Long.BYTES + encodedSize(accessToken) + encodedSize(refreshToken));
+        buffer.put(MAGIC).put(FORMAT_VERSION)
+                .putLong(sessionData.getCreatedAt())
+                .putLong(sessionData.getAccessTokenExpiresAt())
+                .putLong(sessionData.getTokenIssuedAt());
+        writeField(buffer, accessToken);
+        writeField(buffer, refreshToken);
+        return buffer.array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return jsonSerializer.deserialize(bytes);
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            buffer.get();
+            byte version = buffer.get();
+            if (version != FORMAT_VERSION && version != FORMAT_VERSION_WITHOUT_ISSUED_AT
+                    && version != FORMAT_VERSION_WITHOUT_EXPIRY) {
+                throw new SerializationException("Unsupported session format version " + version);
+            }
+            long createdAt = buffer.getLong();
+            long accessTokenExpiresAt = version != FORMAT_VERSION_WITHOUT_EXPIRY ? buffer.getLong() : 0;
+            long tokenIssuedAt = version == FORMAT_VERSION ? buffer.getLong() : createdAt;
+            String accessToken = readField(buffer);
+            String refreshToken = readField(buffer);
+            return new SessionData(accessToken, refreshToken, createdAt, accessTokenExpiresAt, tokenIssuedAt);
+        } catch (RuntimeException e) {
+            if (e instanceof SerializationException serializationException) {
+                throw serializationException;
+            }
+            throw new SerializationException("Failed to decode session data", e);
+        }
+    }
+
+    private static byte[][] encodeField(String value) {
+        if (value == null) {
+            return new byte[][]{{FIELD_NULL}};
+        }
+
+        byte[][] jwt = tryDecodeJwt(value);
+        if (jwt != null) {
+            return new byte[][]{{FIELD_JWT}, jwt[0], jwt[1], jwt[2]};
+        }
+
+        if (value.length() > 1 && value.charAt(0) == BASE64_PREFIX) {
+            byte[] decoded = tryDecode(Base64.getDecoder(), Base64.getEncoder(), value.substring(1));
+            if (decoded != null) {
+                return new byte[][]{{FIELD_PREFIXED_BASE64}, decoded};
+            }
+        }
+
+        return new byte[][]{{FIELD_UTF8}, value.getBytes(StandardCharsets.UTF_8)};
+    }
+
+    private static byte[][] tryDecodeJwt(String value) {
+        int first = value.indexOf('.');
+        int second = first < 0 ? -1 : value.indexOf('.', first + 1);
+        if (second < 0 || value.indexOf('.', second + 1) >= 0) {
+            return null;
+        }
+
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        byte[] header = tryDecode(decoder, encoder, value.substring(0, first));
+        byte[] payload = tryDecode(decoder, encoder, value.substring(first + 1, second));
+        byte[] signature = tryDecode(decoder, encoder, value.substring(second + 1));
+        if (header == null || payload == null || signature == null) {
+            return null;
+        }
+        return new byte[][]{header, payload, signature};
+    }
+
+    private static byte[] tryDecode(Base64.Decoder decoder, Base64.Encoder encoder, String value) {
+        try {
+            byte[] decoded = decoder.decode(value);
+            return encoder.encodeToString(decoded).equals(value) ? decoded : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int encodedSize(byte[][] field) {
+        int size = 1;
+        for (int i = 1; i < field.length; i++) {
+            size += Integer.BYTES + field[i].length;
+        }
+        return size;
+    }
+
+    private static void writeField(ByteBuffer buffer, byte[][] field) {
+        buffer.put(field[0][0]);
+        for (int i = 1; i < field.length; i++) {
+            buffer.putInt(field[i].length).put(field[i]);
+        }
+    }
+
+    private static String readField(ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case FIELD_NULL:
+                return null;
+            case FIELD_UTF8:
+                return new String(readBytes(buffer), StandardCharsets.UTF_8);
+            case FIELD_JWT:
+                Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+                return encoder.encodeToString(readBytes(buffer)) + '.'
+                        + encoder.encodeToString(readBytes(buffer)) + '.'
+                        + encoder.encodeToString(readBytes(buffer));
+            case FIELD_PREFIXED_BASE64:
+                return BASE64_PREFIX + Base64.getEncoder().encodeToString(readBytes(buffer));
+            default:
+                throw new SerializationException("Unknown session field type " + type);
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new SerializationException("Corrupted session field length " + length);
+        }
+        int offset = buffer.arrayOffset() + buffer.position();
+        buffer.position(buffer.position() + length);
+        return Arrays.copyOfRange(buffer.array(), offset, offset + length);
+    }
+}
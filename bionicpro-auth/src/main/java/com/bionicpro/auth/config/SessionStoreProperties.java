@@ -0,0 +1,75 @@
+package com.bionicpro.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "session.store")
+public class SessionStoreProperties {
+    private String type = "redis";
+    private Mapped mapped = new Mapped();
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Mapped getMapped() {
+        return mapped;
+    }
+
+    public void setMapped(Mapped mapped) {
+        this.mapped = mapped;
+    }
+
+    public static class Mapped {
+        private String path = "sessions.db";
+        private int maxSessions = 1_000_000;
+        private int valueCapacity = 4096;
+        private int shards = 32;
+        private long sweepIntervalSeconds = 60;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getMaxSessions() {
+            return maxSessions;
+        }
+
+        public void setMaxSessions(int maxSessions) {
+            this.maxSessions = maxSessions;
+        }
+
+        public int getValueCapacity() {
+            return valueCapacity;
+        }
+
+        public void setValueCapacity(int valueCapacity) {
+            this.valueCapacity = valueCapacity;
+        }
+
+        public int getShards() {
+            return shards;
+        }
+
+        public void setShards(int shards) {
+            this.shards = shards;
+        }
+
+        public long getSweepIntervalSeconds() {
+            return sweepIntervalSeconds;
+        }
+
+        public void setSweepIntervalSeconds(long sweepIntervalSeconds) {
+            this.sweepIntervalSeconds = sweepIntervalSeconds;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.bionicpro.auth.controller;
 
-import com.bionicpro.auth.model.SessionData;
+import com.bionicpro.auth.service.AuthMetrics;
 import com.bionicpro.auth.service.AuthService;
 import com.bionicpro.auth.service.SessionService;
 import jakarta.servlet.http.Cookie;
@@ -20,11 +20,13 @@ public class AuthController {
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
     private final AuthService authService;
     private final SessionService sessionService;
+    private final AuthMetrics authMetrics;
     private static final String SESSION_COOKIE_NAME = "BIONICPRO_SESSION";
 
-    public AuthController(AuthService authService, SessionService sessionService) {
+    public AuthController(AuthService authService, SessionService sessionService, AuthMetrics authMetrics) {
         this.authService = authService;
         this.sessionService = sessionService;
+        this.authMetrics = authMetrics;
     }
 
     @PostMapping("/callback")
@@ -53,8 +55,7 @@ public class AuthController {
             return ResponseEntity.status(401).body(Map.of("error", "No session found"));
         }
 
-        SessionData sessionData = sessionService.getSession(sessionId);
-        if (sessionData == null) {
+        if (!sessionService.sessionExists(sessionId)) {
             return ResponseEntity.status(401).body(Map.of("error", "Session expired"));
         }
 
@@ -94,9 +95,27 @@ public class AuthController {
         return ResponseEntity.ok(Map.of("status", "logged_out"));
     }
 
+    @PostMapping("/logout-all")
+    public ResponseEntity<Map<String, String>> logoutAll(HttpServletRequest request, HttpServletResponse response) {
+        String sessionId = getSessionIdFromCookie(request);
+        if (sessionId == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No session found"));
+        }
+
+        String subject = sessionService.getSubject(sessionId);
+        if (subject == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Session expired"));
+        }
+
+        int revoked = sessionService.revokeUserSessions(subject);
+        sessionService.deleteSession(sessionId);
+        deleteSessionCookie(response);
+        return ResponseEntity.ok(Map.of("status", "logged_out", "revoked", String.valueOf(revoked)));
+    }
+
     @GetMapping("/token")
     public ResponseEntity<Map<String, String>> getAccessToken(HttpServletRequest request) {
-        String sessionId = getSessionIdFromCookie(request);
+        String sessionId = authMetrics.time(AuthMetrics.COOKIE_LOOKUP, () -> getSessionIdFromCookie(request));
         if (sessionId == null) {
             return ResponseEntity.status(401).body(Map.of("error", "No session found"));
         }
@@ -110,7 +129,7 @@ public class AuthController {
         }
     }
 
-    private String getSessionIdFromCookie(HttpServletRequest request) {
+    String getSessionIdFromCookie(HttpServletRequest request) {
         Cookie[] cookies = request.getCookies();
         if (cookies != null) {
             for (Cookie cookie : cookies) {
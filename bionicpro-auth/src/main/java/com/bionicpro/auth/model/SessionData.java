@@ -6,6 +6,8 @@ public class SessionData implements Serializable {
     private String accessToken;
     private String refreshToken;
     private long createdAt;
+    private long accessTokenExpiresAt;
+    private long tokenIssuedAt;
 
     public SessionData() {
     }
@@ -16,6 +18,21 @@ public class SessionData implements Serializable {
         this.createdAt = createdAt;
     }
 
+    public SessionData(String accessToken, String refreshToken, long createdAt, long accessTokenExpiresAt) {
+        this(accessToken, refreshToken, createdAt);
+        this.accessTokenExpiresAt = accessTokenExpiresAt;
+    }
+
+    public SessionData(String accessToken, String refreshToken, long createdAt, long accessTokenExpiresAt,
+                       long tokenIssuedAt) {
+        this(accessToken, refreshToken, createdAt, accessTokenExpiresAt);
+        this.tokenIssuedAt = tokenIssuedAt;
+    }
+
+    public SessionData copy() {
+        return new SessionData(accessToken, refreshToken, createdAt, accessTokenExpiresAt, tokenIssuedAt);
+    }
+
     public String getAccessToken() {
         return accessToken;
     }
@@ -39,5 +56,20 @@ public class SessionData implements Serializable {
     public void setCreatedAt(long createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public long getAccessTokenExpiresAt() {
+        return accessTokenExpiresAt;
+    }
+
+    public void setAccessTokenExpiresAt(long accessTokenExpiresAt) {
+        this.accessTokenExpiresAt = accessTokenExpiresAt;
+    }
+
+    public long getTokenIssuedAt() {
+        return tokenIssuedAt > 0 ? tokenIssuedAt : createdAt;
+    }
+
+    public void setTokenIssuedAt(long tokenIssuedAt) {
+        this.tokenIssuedAt = tokenIssuedAt;
+    }
+}
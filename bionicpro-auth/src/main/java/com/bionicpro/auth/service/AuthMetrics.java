@@ -0,0 +1,69 @@
+package com.bionicpro.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class AuthMetrics {
+
+    public static final String COOKIE_LOOKUP = "cookie_lookup";
+    public static final String STORE_READ = "store_read";
+    public static final String STORE_WRITE = "store_write";
+    public static final String DECODE = "decode";
+    public static final String DECRYPT = "decrypt";
+    public static final String ENCRYPT = "encrypt";
+
+    public static final String ON_DEMAND = "on_demand";
+    public static final String PROACTIVE = "proactive";
+    public static final String EXPLICIT = "explicit";
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+    public static final String FALLBACK = "fallback";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T time(String stage, Supplier<T> supplier) {
+        return stageTimer(stage).record(supplier);
+    }
+
+    public void record(String stage, Runnable action) {
+        stageTimer(stage).record(action);
+    }
+
+    public void refreshOutcome(String trigger, String outcome) {
+        counter("auth.token.refresh", trigger, outcome).increment();
+    }
+
+    public void rotationOutcome(String trigger, String outcome) {
+        counter("auth.session.rotation", trigger, outcome).increment();
+    }
+
+    private Timer stageTimer(String stage) {
+        return stageTimers.computeIfAbsent(stage, name -> Timer.builder("auth.stage")
+                .description("Latency of auth hot path stages")
+                .tag("stage", name)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private Counter counter(String name, String trigger, String outcome) {
+        return counters.computeIfAbsent(name + '|' + trigger + '|' + outcome, key -> Counter.builder(name)
+                .tag("trigger", trigger)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
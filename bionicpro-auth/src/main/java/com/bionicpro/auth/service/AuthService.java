@@ -11,10 +11,19 @@ public class AuthService {
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
     private final KeycloakService keycloakService;
     private final SessionService sessionService;
+    private final TokenRefreshCoordinator refreshCoordinator;
+    private final ProactiveTokenRefresher proactiveTokenRefresher;
+    private final AuthMetrics authMetrics;
 
-    public AuthService(KeycloakService keycloakService, SessionService sessionService) {
+    public AuthService(KeycloakService keycloakService, SessionService sessionService,
+                       TokenRefreshCoordinator refreshCoordinator,
+                       ProactiveTokenRefresher proactiveTokenRefresher,
+                       AuthMetrics authMetrics) {
         this.keycloakService = keycloakService;
         this.sessionService = sessionService;
+        this.refreshCoordinator = refreshCoordinator;
+        this.proactiveTokenRefresher = proactiveTokenRefresher;
+        this.authMetrics = authMetrics;
     }
 
     public String authenticate(String code, String codeVerifier, String redirectUri) {
@@ -24,7 +33,8 @@ public class AuthService {
             
             return sessionService.createSession(
                     tokenResponse.getAccessToken(),
-                    tokenResponse.getRefreshToken()
+                    tokenResponse.getRefreshToken(),
+                    tokenResponse.getExpiresIn()
             );
         } catch (Exception e) {
             logger.error("Authentication failed", e);
@@ -37,13 +47,20 @@ public class AuthService {
         if (sessionData == null) {
             throw new RuntimeException("Session not found");
         }
+        proactiveTokenRefresher.recordActivity(sessionId, sessionData);
 
         if (sessionService.isAccessTokenExpired(sessionData)) {
-            return refreshAccessToken(sessionId, sessionData);
+            return refreshCoordinator.execute(sessionId,
+                    () -> refreshAccessToken(sessionId, sessionData));
         }
 
         if (sessionService.shouldRotateSession(sessionData)) {
-            return rotateSessionAndGetToken(sessionId, sessionData);
+            if (sessionService.hasFreshTokens(sessionData)) {
+                // No Keycloak call to coordinate; a concurrent rotation of the same id simply loses the race
+                return rotateSessionWithCurrentTokens(sessionId, sessionData);
+            }
+            return refreshCoordinator.execute(sessionId,
+                    () -> rotateSessionAndGetToken(sessionId, sessionData));
         }
 
         return sessionData.getAccessToken();
@@ -54,12 +71,18 @@ public class AuthService {
             KeycloakService.TokenResponse tokenResponse = keycloakService.refreshToken(
                     sessionData.getRefreshToken());
             
-            sessionService.updateSession(sessionId,
+            boolean updated = sessionService.updateSession(sessionId, sessionData.getCreatedAt(),
                     tokenResponse.getAccessToken(),
-                    tokenResponse.getRefreshToken());
+                    tokenResponse.getRefreshToken(),
+                    tokenResponse.getExpiresIn());
+            if (!updated) {
+                throw new RuntimeException("Session not found");
+            }
             
+            authMetrics.refreshOutcome(AuthMetrics.ON_DEMAND, AuthMetrics.SUCCESS);
             return tokenResponse.getAccessToken();
         } catch (Exception e) {
+            authMetrics.refreshOutcome(AuthMetrics.ON_DEMAND, AuthMetrics.FAILURE);
             logger.error("Failed to refresh access token", e);
             throw new RuntimeException("Failed to refresh token", e);
         }
@@ -72,16 +95,31 @@ public class AuthService {
             
             String newSessionId = sessionService.rotateSession(sessionId,
                     tokenResponse.getAccessToken(),
-                    tokenResponse.getRefreshToken());
+                    tokenResponse.getRefreshToken(),
+                    tokenResponse.getExpiresIn());
             
+            authMetrics.rotationOutcome(AuthMetrics.ON_DEMAND, AuthMetrics.SUCCESS);
             logger.debug("Rotated session from {} to {}", sessionId, newSessionId);
             return tokenResponse.getAccessToken();
         } catch (Exception e) {
+            authMetrics.rotationOutcome(AuthMetrics.ON_DEMAND, AuthMetrics.FALLBACK);
             logger.error("Failed to rotate session", e);
             return sessionData.getAccessToken();
         }
     }
 
+    private String rotateSessionWithCurrentTokens(String sessionId, SessionData sessionData) {
+        try {
+            String newSessionId = sessionService.rotateSessionWithCurrentTokens(sessionId, sessionData);
+            authMetrics.rotationOutcome(AuthMetrics.ON_DEMAND, AuthMetrics.SUCCESS);
+            logger.debug("Rotated session from {} to {} keeping refreshed tokens", sessionId, newSessionId);
+        } catch (Exception e) {
+            authMetrics.rotationOutcome(AuthMetrics.ON_DEMAND, AuthMetrics.FALLBACK);
+            logger.error("Failed to rotate session", e);
+        }
+        return sessionData.getAccessToken();
+    }
+
     public String refreshSession(String sessionId) {
         SessionData sessionData = sessionService.getSession(sessionId);
         if (sessionData == null) {
@@ -92,10 +130,14 @@ public class AuthService {
             KeycloakService.TokenResponse tokenResponse = keycloakService.refreshToken(
                     sessionData.getRefreshToken());
             
-            return sessionService.rotateSession(sessionId,
+            String newSessionId = sessionService.rotateSession(sessionId,
                     tokenResponse.getAccessToken(),
-                    tokenResponse.getRefreshToken());
+                    tokenResponse.getRefreshToken(),
+                    tokenResponse.getExpiresIn());
+            authMetrics.rotationOutcome(AuthMetrics.EXPLICIT, AuthMetrics.SUCCESS);
+            return newSessionId;
         } catch (Exception e) {
+            authMetrics.rotationOutcome(AuthMetrics.EXPLICIT, AuthMetrics.FAILURE);
             logger.error("Failed to refresh session", e);
             throw new RuntimeException("Failed to refresh session", e);
         }
@@ -3,77 +3,124 @@ package com.bionicpro.auth.service;
 import com.bionicpro.auth.config.KeycloakProperties;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Callable;
 
 @Service
 public class KeycloakService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(KeycloakService.class);
     private final KeycloakProperties keycloakProperties;
     private final ObjectMapper objectMapper;
     private final CloseableHttpClient httpClient;
+    private final String tokenUrl;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Timer codeExchangeTimer;
+    private final Timer refreshTimer;
 
-    public KeycloakService(KeycloakProperties keycloakProperties) {
+    public KeycloakService(KeycloakProperties keycloakProperties, MeterRegistry meterRegistry) {
         this.keycloakProperties = keycloakProperties;
         this.objectMapper = new ObjectMapper();
-        this.httpClient = HttpClients.createDefault();
+        this.tokenUrl = keycloakProperties.getUrl() + "/realms/" + keycloakProperties.getRealm()
+                + "/protocol/openid-connect/token";
+
+        KeycloakProperties.Http http = keycloakProperties.getHttp();
+        this.httpClient = createHttpClient(http);
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(http.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ofMillis(http.getMaxWaitMs()))
+                .build());
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(http.getFailureRateThreshold())
+                .slowCallDurationThreshold(Duration.ofMillis(http.getSlowCallThresholdMs()))
+                .waitDurationInOpenState(Duration.ofSeconds(http.getOpenStateSeconds()))
+                .recordExceptions(IOException.class)
+                .build());
+        this.bulkhead = bulkheadRegistry.bulkhead("keycloak");
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("keycloak");
+
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        this.codeExchangeTimer = tokenRequestTimer(meterRegistry, "authorization_code");
+        this.refreshTimer = tokenRequestTimer(meterRegistry, "refresh_token");
     }
 
     public TokenResponse exchangeCodeForTokens(String code, String codeVerifier, String redirectUri) throws IOException {
-        String tokenUrl = String.format("%s/realms/%s/protocol/openid-connect/token",
-                keycloakProperties.getUrl(), keycloakProperties.getRealm());
-
-        HttpPost request = new HttpPost(tokenUrl);
-        request.setHeader("Content-Type", "application/x-www-form-urlencoded");
-
         String body = String.format(
                 "grant_type=authorization_code&client_id=%s&code=%s&redirect_uri=%s&code_verifier=%s",
                 keycloakProperties.getClientId(), code, redirectUri, codeVerifier);
 
-        request.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
-
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
-            if (response.getCode() != 200) {
-                logger.error("Failed to exchange code for tokens: {}", response.getCode());
-                throw new RuntimeException("Failed to exchange code for tokens");
-            }
-
-            JsonNode jsonNode = objectMapper.readTree(response.getEntity().getContent());
-            return new TokenResponse(
-                    jsonNode.get("access_token").asText(),
-                    jsonNode.get("refresh_token").asText(),
-                    jsonNode.get("expires_in").asInt()
-            );
-        }
+        return execute(codeExchangeTimer, () -> requestTokens(body, "Failed to exchange code for tokens"));
     }
 
     public TokenResponse refreshToken(String refreshToken) throws IOException {
-        String tokenUrl = String.format("%s/realms/%s/protocol/openid-connect/token",
-                keycloakProperties.getUrl(), keycloakProperties.getRealm());
-
-        HttpPost request = new HttpPost(tokenUrl);
-        request.setHeader("Content-Type", "application/x-www-form-urlencoded");
-
         String body = String.format(
                 "grant_type=refresh_token&client_id=%s&refresh_token=%s",
                 keycloakProperties.getClientId(), refreshToken);
 
+        return execute(refreshTimer, () -> requestTokens(body, "Failed to refresh token"));
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    private TokenResponse execute(Timer timer, Callable<TokenResponse> call) throws IOException {
+        Callable<TokenResponse> guarded = Bulkhead.decorateCallable(bulkhead,
+                CircuitBreaker.decorateCallable(circuitBreaker, () -> timer.recordCallable(call)));
+        try {
+            return guarded.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Keycloak token request failed", e);
+        }
+    }
+
+    private TokenResponse requestTokens(String body, String errorMessage) throws IOException {
+        HttpPost request = new HttpPost(tokenUrl);
+        request.setHeader("Content-Type", "application/x-www-form-urlencoded");
         request.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
 
         try (CloseableHttpResponse response = httpClient.execute(request)) {
+            if (response.getCode() >= 500) {
+                logger.error("{}: {}", errorMessage, response.getCode());
+                throw new IOException(errorMessage + ": Keycloak returned " + response.getCode());
+            }
             if (response.getCode() != 200) {
-                logger.error("Failed to refresh token: {}", response.getCode());
-                throw new RuntimeException("Failed to refresh token");
+                logger.error("{}: {}", errorMessage, response.getCode());
+                throw new RuntimeException(errorMessage);
             }
 
             JsonNode jsonNode = objectMapper.readTree(response.getEntity().getContent());
@@ -85,6 +132,45 @@ public class KeycloakService {
         }
     }
 
+    private static CloseableHttpClient createHttpClient(KeycloakProperties.Http http) {
+        TimeValue maxKeepAlive = TimeValue.ofSeconds(http.getKeepAliveSeconds());
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(http.getMaxConnections())
+                .setMaxConnPerRoute(http.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(http.getConnectTimeoutMs()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(http.getResponseTimeoutMs()))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(http.getValidateAfterInactivityMs()))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(http.getConnectionRequestTimeoutMs()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(http.getResponseTimeoutMs()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    // Honour a shorter Keep-Alive timeout announced by Keycloak or a proxy in front of it
+                    TimeValue keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return TimeValue.isPositive(keepAlive) && keepAlive.compareTo(maxKeepAlive) < 0
+                            ? keepAlive
+                            : maxKeepAlive;
+                })
+                .evictIdleConnections(TimeValue.ofSeconds(http.getIdleEvictSeconds()))
+                .evictExpiredConnections()
+                .build();
+    }
+
+    private static Timer tokenRequestTimer(MeterRegistry meterRegistry, String grantType) {
+        return Timer.builder("keycloak.token.requests")
+                .description("Latency of Keycloak token endpoint calls")
+                .tag("grant_type", grantType)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     public static class TokenResponse {
         private final String accessToken;
         private final String refreshToken;
@@ -109,4 +195,3 @@ public class KeycloakService {
         }
     }
 }
-
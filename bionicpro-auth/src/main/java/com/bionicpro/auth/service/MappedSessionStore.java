@@ -0,0 +1,719 @@
+package com.bionicpro.auth.service;
+
+import com.bionicpro.auth.config.SessionStoreProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@ConditionalOnProperty(name = "session.store.type", havingValue = "mapped")
+public class MappedSessionStore implements SessionStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedSessionStore.class);
+    private static final int MAGIC = 0xB5E55101;
+    private static final int FORMAT_VERSION = 3;
+    private static final int HEADER_SIZE = 4096;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MAX_SHARDS = 256;
+
+    private static final int ENTRY_SIZE = 128;
+    private static final int STATE = 0;
+    private static final int KEY_LENGTH = 1;
+    private static final int SUBJECT_LENGTH = 2;
+    private static final int HASH = 4;
+    private static final int EXPIRES_AT = 8;
+    private static final int VALUE_LENGTH = 16;
+    private static final int KEY = 20;
+    private static final int SUBJECT = 64;
+    private static final int KEY_CAPACITY = SUBJECT - KEY;
+    private static final int SUBJECT_CAPACITY = ENTRY_SIZE - SUBJECT;
+    private static final int SUBJECT_ENTRY_SIZE = 64;
+    private static final int SUBJECT_HASH = 4;
+    private static final int SUBJECT_KEY = 8;
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+
+    private final FileChannel channel;
+    private final Shard[] shards;
+    private final SubjectIndex[] subjectIndexes;
+    private final int valueCapacity;
+    private final ScheduledExecutorService sweeper;
+
+    public MappedSessionStore(SessionStoreProperties properties) {
+        SessionStoreProperties.Mapped mapped = properties.getMapped();
+        int shardCount = mapped.getShards();
+        if (shardCount < 1 || shardCount > MAX_SHARDS) {
+            throw new IllegalArgumentException("session.store.mapped.shards must be between 1 and " + MAX_SHARDS);
+        }
+        this.valueCapacity = mapped.getValueCapacity();
+        int slots = (int) Math.ceil(mapped.getMaxSessions() / LOAD_FACTOR / shardCount);
+        if ((long) slots * Math.max(valueCapacity, ENTRY_SIZE) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Mapped session shard exceeds 2 GB, raise session.store.mapped.shards");
+        }
+
+        Path path = Path.of(mapped.getPath());
+        long indexSize = (long) slots * ENTRY_SIZE;
+        long dataSize = (long) slots * valueCapacity;
+        long subjectIndexSize = (long) slots * SUBJECT_ENTRY_SIZE;
+        long fileSize = HEADER_SIZE + (indexSize + dataSize + subjectIndexSize) * shardCount;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            if (!headerMatches(header, shardCount, slots)) {
+                logger.info("Initializing mapped session store {} ({} sessions, {} MB)",
+                        path, mapped.getMaxSessions(), fileSize >> 20);
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(new byte[1]), fileSize - 1);
+                header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                header.putInt(0, MAGIC)
+                        .putInt(4, FORMAT_VERSION)
+                        .putInt(8, shardCount)
+                        .putInt(12, slots)
+                        .putInt(16, valueCapacity);
+                header.force();
+            }
+
+            this.shards = new Shard[shardCount];
+            this.subjectIndexes = new SubjectIndex[shardCount];
+            long dataStart = HEADER_SIZE + indexSize * shardCount;
+            long subjectIndexStart = dataStart + dataSize * shardCount;
+            int restored = 0;
+            for (int i = 0; i < shardCount; i++) {
+                shards[i] = new Shard(i,
+                        channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + indexSize * i, indexSize),
+                        channel.map(FileChannel.MapMode.READ_WRITE, dataStart + dataSize * i, dataSize),
+                        slots);
+                restored += shards[i].size;
+                subjectIndexes[i] = new SubjectIndex(channel.map(FileChannel.MapMode.READ_WRITE,
+                        subjectIndexStart + subjectIndexSize * i, subjectIndexSize), slots);
+            }
+            logger.info("Opened mapped session store {} with {} stored sessions", path, restored);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open mapped session store " + path, e);
+        }
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-store-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = mapped.getSweepIntervalSeconds();
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public byte[] get(String sessionId) {
+        byte[] key = keyBytes(sessionId);
+        int hash = hash(sessionId);
+        Shard shard = shard(hash);
+        shard.lock.lock();
+        try {
+            int slot = shard.find(key, hash);
+            if (slot < 0) {
+                return null;
+            }
+            if (shard.isExpired(slot, System.currentTimeMillis())) {
+                shard.remove(slot);
+                return null;
+            }
+            return shard.value(slot);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean exists(String sessionId) {
+        byte[] key = keyBytes(sessionId);
+        int hash = hash(sessionId);
+        Shard shard = shard(hash);
+        shard.lock.lock();
+        try {
+            int slot = shard.find(key, hash);
+            return slot >= 0 && !shard.isExpired(slot, System.currentTimeMillis());
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean createIfAbsent(String sessionId, String subject, byte[] value, long ttlMillis) {
+        checkValue(value);
+        byte[] key = keyBytes(sessionId);
+        byte[] subjectKey = subjectBytes(subject);
+        int hash = hash(sessionId);
+        Shard shard = shard(hash);
+        shard.lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            int slot = shard.find(key, hash);
+            if (slot >= 0) {
+                if (!shard.isExpired(slot, now)) {
+                    return false;
+                }
+                shard.remove(slot);
+                slot = shard.find(key, hash);
+            }
+            shard.put(slot, key, hash, subjectKey, value, now + ttlMillis);
+            return true;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean update(String sessionId, byte[] value) {
+        checkValue(value);
+        byte[] key = keyBytes(sessionId);
+        int hash = hash(sessionId);
+        Shard shard = shard(hash);
+        shard.lock.lock();
+        try {
+            int slot = shard.find(key, hash);
+            if (slot < 0) {
+                return false;
+            }
+            if (shard.isExpired(slot, System.currentTimeMillis())) {
+                shard.remove(slot);
+                return false;
+            }
+            shard.put(slot, key, hash, null, value, shard.index.getLong(slot * ENTRY_SIZE + EXPIRES_AT));
+            return true;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean rotate(String oldSessionId, String newSessionId, String subject, byte[] value, long ttlMillis) {
+        checkValue(value);
+        byte[] oldKey = keyBytes(oldSessionId);
+        byte[] newKey = keyBytes(newSessionId);
+        byte[] subjectKey = subjectBytes(subject);
+        int oldHash = hash(oldSessionId);
+        int newHash = hash(newSessionId);
+        Shard oldShard = shard(oldHash);
+        Shard newShard = shard(newHash);
+        Shard first = oldShard.id <= newShard.id ? oldShard : newShard;
+        Shard second = first == oldShard ? newShard : oldShard;
+
+        first.lock.lock();
+        second.lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            int oldSlot = oldShard.find(oldKey, oldHash);
+            if (oldSlot < 0) {
+                return false;
+            }
+            if (oldShard.isExpired(oldSlot, now)) {
+                oldShard.remove(oldSlot);
+                return false;
+            }
+
+            int slot = newShard.find(newKey, newHash);
+            if (slot >= 0) {
+                if (!newShard.isExpired(slot, now)) {
+                    return false;
+                }
+                newShard.remove(slot);
+                slot = newShard.find(newKey, newHash);
+            }
+            newShard.put(slot, newKey, newHash, subjectKey, value, now + ttlMillis);
+
+            oldShard.remove(oldShard.find(oldKey, oldHash));
+            return true;
+        } finally {
+            second.lock.unlock();
+            first.lock.unlock();
+        }
+    }
+
+    @Override
+    public void delete(String sessionId, String subject) {
+        byte[] key = keyBytes(sessionId);
+        int hash = hash(sessionId);
+        Shard shard = shard(hash);
+        shard.lock.lock();
+        try {
+            int slot = shard.find(key, hash);
+            if (slot >= 0) {
+                shard.remove(slot);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public List<String> revokeAll(String subject) {
+        byte[] subjectKey = subjectBytes(subject);
+        if (subjectKey == null) {
+            return List.of();
+        }
+        // Sessions of a subject are listed by the subject index, so revocation touches only those sessions
+        int subjectHash = hash(subjectKey);
+        SubjectIndex subjectIndex = subjectIndex(subjectHash);
+        List<byte[]> keys;
+        subjectIndex.lock.lock();
+        try {
+            keys = subjectIndex.keys(subjectHash);
+        } finally {
+            subjectIndex.lock.unlock();
+        }
+
+        List<String> revoked = new ArrayList<>(keys.size());
+        for (byte[] key : keys) {
+            String sessionId = new String(key, StandardCharsets.UTF_8);
+            int hash = hash(sessionId);
+            Shard shard = shard(hash);
+            shard.lock.lock();
+            try {
+                int slot = shard.find(key, hash);
+                if (slot >= 0 && shard.subjectEquals(slot, subjectKey)) {
+                    shard.remove(slot);
+                    revoked.add(sessionId);
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return revoked;
+    }
+
+    @Override
+    public boolean isShared() {
+        return false;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                size += shard.size;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    @PreDestroy
+    public void close() {
+        sweeper.shutdownNow();
+        try {
+            for (Shard shard : shards) {
+                shard.lock.lock();
+                try {
+                    shard.index.force();
+                    shard.data.force();
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+            for (SubjectIndex subjectIndex : subjectIndexes) {
+                subjectIndex.lock.lock();
+                try {
+                    subjectIndex.index.force();
+                } finally {
+                    subjectIndex.lock.unlock();
+                }
+            }
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close mapped session store", e);
+        }
+    }
+
+    void sweep() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                for (int slot = 0; slot < shard.slots; slot++) {
+                    while (shard.index.get(slot * ENTRY_SIZE + STATE) == USED && shard.isExpired(slot, now)) {
+                        shard.remove(slot);
+                        removed++;
+                    }
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        if (removed > 0) {
+            logger.debug("Swept {} expired sessions", removed);
+        }
+    }
+
+    private boolean headerMatches(MappedByteBuffer header, int shardCount, int slots) {
+        return header.getInt(0) == MAGIC
+                && header.getInt(4) == FORMAT_VERSION
+                && header.getInt(8) == shardCount
+                && header.getInt(12) == slots
+                && header.getInt(16) == valueCapacity;
+    }
+
+    private Shard shard(int hash) {
+        return shards[Integer.remainderUnsigned(hash, shards.length)];
+    }
+
+    private SubjectIndex subjectIndex(int subjectHash) {
+        return subjectIndexes[Integer.remainderUnsigned(subjectHash, subjectIndexes.length)];
+    }
+
+    private void checkValue(byte[] value) {
+        if (value.length > valueCapacity) {
+            throw new IllegalArgumentException("Session value of " + value.length
+                    + " bytes exceeds session.store.mapped.value-capacity " + valueCapacity);
+        }
+    }
+
+    private static byte[] subjectBytes(String subject) {
+        if (subject == null) {
+            return null;
+        }
+        byte[] bytes = subject.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > SUBJECT_CAPACITY) {
+            logger.warn("Subject is longer than {} bytes, session is not indexed by user", SUBJECT_CAPACITY);
+            return null;
+        }
+        return bytes;
+    }
+
+    private static byte[] keyBytes(String sessionId) {
+        byte[] key = sessionId.getBytes(StandardCharsets.UTF_8);
+        if (key.length > KEY_CAPACITY) {
+            throw new IllegalArgumentException("Session id is longer than " + KEY_CAPACITY + " bytes");
+        }
+        return key;
+    }
+
+    private static int hash(String sessionId) {
+        int h = sessionId.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int hash(byte[] subject) {
+        int h = Arrays.hashCode(subject);
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private final class Shard {
+        private final int id;
+        private final MappedByteBuffer index;
+        private final MappedByteBuffer data;
+        private final int slots;
+        private final ReentrantLock lock = new ReentrantLock();
+        private int size;
+
+        Shard(int id, MappedByteBuffer index, MappedByteBuffer data, int slots) {
+            this.id = id;
+            this.index = index;
+            this.data = data;
+            this.slots = slots;
+            for (int slot = 0; slot < slots; slot++) {
+                int offset = slot * ENTRY_SIZE;
+                if (index.get(offset + STATE) == USED) {
+                    size++;
+                }
+            }
+        }
+
+        int find(byte[] key, int hash) {
+            int slot = home(hash);
+            for (int probes = 0; probes < slots; probes++) {
+                int offset = slot * ENTRY_SIZE;
+                if (index.get(offset + STATE) == EMPTY) {
+                    return -1 - slot;
+                }
+                if (index.getInt(offset + HASH) == hash && keyEquals(offset, key)) {
+                    return slot;
+                }
+                slot = next(slot);
+            }
+            return Integer.MIN_VALUE;
+        }
+
+        void put(int found, byte[] key, int hash, byte[] subject, byte[] value, long expiresAt) {
+            int slot;
+            if (found >= 0) {
+                slot = found;
+            } else {
+                if (found == Integer.MIN_VALUE || size + 1 >= slots) {
+                    throw new RuntimeException("Mapped session store is full");
+                }
+                slot = -1 - found;
+                if (subject != null) {
+                    addToSubjectIndex(hash(subject), key);
+                }
+                size++;
+            }
+
+            data.put(slot * valueCapacity, value);
+            int offset = slot * ENTRY_SIZE;
+            if (subject != null) {
+                index.put(offset + SUBJECT_LENGTH, (byte) subject.length)
+                        .put(offset + SUBJECT, subject);
+            } else if (found < 0) {
+                index.put(offset + SUBJECT_LENGTH, (byte) 0);
+            }
+            index.put(offset + KEY_LENGTH, (byte) key.length)
+                    .putInt(offset + HASH, hash)
+                    .putLong(offset + EXPIRES_AT, expiresAt)
+                    .putInt(offset + VALUE_LENGTH, value.length)
+                    .put(offset + KEY, key)
+                    .put(offset + STATE, USED);
+        }
+
+        byte[] value(int slot) {
+            byte[] value = new byte[index.getInt(slot * ENTRY_SIZE + VALUE_LENGTH)];
+            data.get(slot * valueCapacity, value);
+            return value;
+        }
+
+        boolean isExpired(int slot, long now) {
+            return index.getLong(slot * ENTRY_SIZE + EXPIRES_AT) <= now;
+        }
+
+        String key(int slot) {
+            int offset = slot * ENTRY_SIZE;
+            return string(offset + KEY, index.get(offset + KEY_LENGTH));
+        }
+
+        void remove(int slot) {
+            int subjectLength = index.get(slot * ENTRY_SIZE + SUBJECT_LENGTH);
+            if (subjectLength > 0) {
+                byte[] subject = new byte[subjectLength];
+                index.get(slot * ENTRY_SIZE + SUBJECT, subject);
+                byte[] key = new byte[index.get(slot * ENTRY_SIZE + KEY_LENGTH)];
+                index.get(slot * ENTRY_SIZE + KEY, key);
+                removeFromSubjectIndex(hash(subject), key);
+            }
+
+            int hole = slot;
+            int current = slot;
+            while (true) {
+                current = next(current);
+                int offset = current * ENTRY_SIZE;
+                if (index.get(offset + STATE) == EMPTY) {
+                    break;
+                }
+                int home = home(index.getInt(offset + HASH));
+                boolean movable = hole <= current
+                        ? home <= hole || home > current
+                        : home <= hole && home > current;
+                if (movable) {
+                    index.put(hole * ENTRY_SIZE, index, offset, ENTRY_SIZE);
+                    data.put(hole * valueCapacity, data, current * valueCapacity,
+                            index.getInt(offset + VALUE_LENGTH));
+                    hole = current;
+                }
+            }
+            index.put(hole * ENTRY_SIZE + STATE, EMPTY);
+            size--;
+        }
+
+        private String string(int offset, int length) {
+            byte[] bytes = new byte[length];
+            index.get(offset, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        boolean subjectEquals(int slot, byte[] subject) {
+            int offset = slot * ENTRY_SIZE;
+            if (index.get(offset + SUBJECT_LENGTH) != subject.length) {
+                return false;
+            }
+            for (int i = 0; i < subject.length; i++) {
+                if (index.get(offset + SUBJECT + i) != subject[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean keyEquals(int offset, byte[] key) {
+            if (index.get(offset + KEY_LENGTH) != key.length) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (index.get(offset + KEY + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int home(int hash) {
+            return Integer.remainderUnsigned(Integer.rotateRight(hash, 16), slots);
+        }
+
+        private int next(int slot) {
+            return slot + 1 == slots ? 0 : slot + 1;
+        }
+    }
+
+    private void addToSubjectIndex(int subjectHash, byte[] key) {
+        SubjectIndex subjectIndex = subjectIndex(subjectHash);
+        subjectIndex.lock.lock();
+        try {
+            subjectIndex.add(subjectHash, key);
+        } finally {
+            subjectIndex.lock.unlock();
+        }
+    }
+
+    private void removeFromSubjectIndex(int subjectHash, byte[] key) {
+        SubjectIndex subjectIndex = subjectIndex(subjectHash);
+        subjectIndex.lock.lock();
+        try {
+            subjectIndex.remove(subjectHash, key);
+        } finally {
+            subjectIndex.lock.unlock();
+        }
+    }
+
+    // Linear-probing multimap from subject hash to session id; a subject's sessions share one probe run.
+    // Locked after a session shard lock, never the other way round.
+    private static final class SubjectIndex {
+        private final MappedByteBuffer index;
+        private final int slots;
+        private final ReentrantLock lock = new ReentrantLock();
+        private int size;
+
+        SubjectIndex(MappedByteBuffer index, int slots) {
+            this.index = index;
+            this.slots = slots;
+            for (int slot = 0; slot < slots; slot++) {
+                if (index.get(slot * SUBJECT_ENTRY_SIZE + STATE) == USED) {
+                    size++;
+                }
+            }
+        }
+
+        void add(int subjectHash, byte[] key) {
+            if (size + 1 >= slots) {
+                throw new RuntimeException("Mapped session store subject index is full");
+            }
+            int slot = home(subjectHash);
+            while (index.get(slot * SUBJECT_ENTRY_SIZE + STATE) == USED) {
+                slot = next(slot);
+            }
+            int offset = slot * SUBJECT_ENTRY_SIZE;
+            index.put(offset + KEY_LENGTH, (byte) key.length)
+                    .putInt(offset + SUBJECT_HASH, subjectHash)
+                    .put(offset + SUBJECT_KEY, key)
+                    .put(offset + STATE, USED);
+            size++;
+        }
+
+        List<byte[]> keys(int subjectHash) {
+            List<byte[]> keys = new ArrayList<>();
+            int slot = home(subjectHash);
+            for (int probes = 0; probes < slots; probes++) {
+                int offset = slot * SUBJECT_ENTRY_SIZE;
+                if (index.get(offset + STATE) == EMPTY) {
+                    break;
+                }
+                if (index.getInt(offset + SUBJECT_HASH) == subjectHash) {
+                    byte[] key = new byte[index.get(offset + KEY_LENGTH)];
+                    index.get(offset + SUBJECT_KEY, key);
+                    keys.add(key);
+                }
+                slot = next(slot);
+            }
+            return keys;
+        }
+
+        void remove(int subjectHash, byte[] key) {
+            int slot = home(subjectHash);
+            for (int probes = 0; probes < slots; probes++) {
+                int offset = slot * SUBJECT_ENTRY_SIZE;
+                if (index.get(offset + STATE) == EMPTY) {
+                    return;
+                }
+                if (index.getInt(offset + SUBJECT_HASH) == subjectHash && keyEquals(offset, key)) {
+                    removeSlot(slot);
+                    return;
+                }
+                slot = next(slot);
+            }
+        }
+
+        private void removeSlot(int slot) {
+            int hole = slot;
+            int current = slot;
+            while (true) {
+                current = next(current);
+                int offset = current * SUBJECT_ENTRY_SIZE;
+                if (index.get(offset + STATE) == EMPTY) {
+                    break;
+                }
+                int home = home(index.getInt(offset + SUBJECT_HASH));
+                boolean movable = hole <= current
+                        ? home <= hole || home > current
+                        : home <= hole && home > current;
+                if (movable) {
+                    index.put(hole * SUBJECT_ENTRY_SIZE, index, offset, SUBJECT_ENTRY_SIZE);
+                    hole = current;
+                }
+            }
+            index.put(hole * SUBJECT_ENTRY_SIZE + STATE, EMPTY);
+            size--;
+        }
+
+        private boolean keyEquals(int offset, byte[] key) {
+            if (index.get(offset + KEY_LENGTH) != key.length) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (index.get(offset + SUBJECT_KEY + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int home(int subjectHash) {
+            return Integer.remainderUnsigned(Integer.rotateRight(subjectHash, 16), slots);
+        }
+
+        private int next(int slot) {
+            return slot + 1 == slots ? 0 : slot + 1;
+        }
+    }
+}
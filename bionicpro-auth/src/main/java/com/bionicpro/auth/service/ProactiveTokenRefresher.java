@@ -0,0 +1,212 @@
+package com.bionicpro.auth.service;
+
+import com.bionicpro.auth.model.SessionData;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ProactiveTokenRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProactiveTokenRefresher.class);
+    private final KeycloakService keycloakService;
+    private final SessionService sessionService;
+    private final TokenRefreshCoordinator refreshCoordinator;
+    private final AuthMetrics authMetrics;
+    private final boolean enabled;
+    private final long leadMillis;
+    private final long jitterMillis;
+    private final long activeWindowMillis;
+    private final int maxConcurrency;
+    private final int maxTrackedSessions;
+    private final DelayQueue<ScheduledRefresh> queue = new DelayQueue<>();
+    private final ConcurrentHashMap<String, Long> lastActivity = new ConcurrentHashMap<>();
+    private final Semaphore permits;
+    private ExecutorService workers;
+    private Thread dispatcher;
+
+    public ProactiveTokenRefresher(
+            KeycloakService keycloakService,
+            SessionService sessionService,
+            TokenRefreshCoordinator refreshCoordinator,
+            AuthMetrics authMetrics,
+            @Value("${token.proactive-refresh.enabled:false}") boolean enabled,
+            @Value("${token.proactive-refresh.lead-seconds:15}") long leadSeconds,
+            @Value("${token.proactive-refresh.jitter-seconds:10}") long jitterSeconds,
+            @Value("${token.proactive-refresh.active-window-seconds:300}") long activeWindowSeconds,
+            @Value("${token.proactive-refresh.max-concurrency:4}") int maxConcurrency,
+            @Value("${token.proactive-refresh.max-tracked-sessions:100000}") int maxTrackedSessions) {
+        this.keycloakService = keycloakService;
+        this.sessionService = sessionService;
+        this.refreshCoordinator = refreshCoordinator;
+        this.authMetrics = authMetrics;
+        this.enabled = enabled;
+        this.leadMillis = TimeUnit.SECONDS.toMillis(leadSeconds);
+        this.jitterMillis = TimeUnit.SECONDS.toMillis(jitterSeconds);
+        this.activeWindowMillis = TimeUnit.SECONDS.toMillis(activeWindowSeconds);
+        this.maxConcurrency = maxConcurrency;
+        this.maxTrackedSessions = maxTrackedSessions;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        workers = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "token-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = new Thread(this::dispatch, "token-refresher-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        logger.info("Proactive token refresh enabled with concurrency {}", maxConcurrency);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            workers.shutdownNow();
+        }
+    }
+
+    public void recordActivity(String sessionId, SessionData sessionData) {
+        if (!enabled) {
+            return;
+        }
+        if (lastActivity.put(sessionId, System.currentTimeMillis()) != null) {
+            return;
+        }
+        if (lastActivity.size() > maxTrackedSessions) {
+            lastActivity.remove(sessionId);
+            return;
+        }
+        schedule(sessionId, sessionData);
+    }
+
+    private void schedule(String sessionId, SessionData sessionData) {
+        long jitter = jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis) : 0;
+        long refreshAt = nextRefreshDueAt(sessionData) - leadMillis - jitter;
+        queue.put(new ScheduledRefresh(sessionId, refreshAt));
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                ScheduledRefresh scheduled = queue.take();
+                permits.acquire();
+                try {
+                    workers.execute(() -> {
+                        try {
+                            refresh(scheduled.sessionId);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.warn("Proactive token refresh dispatch failed", e);
+            }
+        }
+    }
+
+    private void refresh(String sessionId) {
+        Long lastSeen = lastActivity.get(sessionId);
+        if (lastSeen == null || System.currentTimeMillis() - lastSeen > activeWindowMillis) {
+            lastActivity.remove(sessionId);
+            return;
+        }
+
+        try {
+            SessionData sessionData = sessionService.getSession(sessionId);
+            if (sessionData == null) {
+                lastActivity.remove(sessionId);
+                return;
+            }
+
+            if (System.currentTimeMillis() >= nextRefreshDueAt(sessionData) - leadMillis - jitterMillis) {
+                refreshCoordinator.execute(sessionId, () -> {
+                    try {
+                        KeycloakService.TokenResponse tokenResponse = keycloakService.refreshToken(
+                                sessionData.getRefreshToken());
+                        boolean updated = sessionService.updateSession(sessionId, sessionData.getCreatedAt(),
+                                tokenResponse.getAccessToken(),
+                                tokenResponse.getRefreshToken(),
+                                tokenResponse.getExpiresIn());
+                        if (!updated) {
+                            throw new RuntimeException("Session not found");
+                        }
+                        authMetrics.refreshOutcome(AuthMetrics.PROACTIVE, AuthMetrics.SUCCESS);
+                        return tokenResponse.getAccessToken();
+                    } catch (Exception e) {
+                        authMetrics.refreshOutcome(AuthMetrics.PROACTIVE, AuthMetrics.FAILURE);
+                        throw new RuntimeException("Failed to refresh token", e);
+                    }
+                });
+                logger.debug("Proactively refreshed session: {}", sessionId);
+            }
+
+            SessionData current = sessionService.getSession(sessionId);
+            if (current == null) {
+                lastActivity.remove(sessionId);
+                return;
+            }
+            schedule(sessionId, current);
+        } catch (Exception e) {
+            lastActivity.remove(sessionId);
+            logger.warn("Proactive refresh failed for session {}", sessionId, e);
+        }
+    }
+
+    private long nextRefreshDueAt(SessionData sessionData) {
+        long refreshDueAt = sessionService.refreshDueAt(sessionData);
+        long rotationDueAt = sessionService.rotationDueAt(sessionData);
+        // Refresh just ahead of the session id rotation too, so the request that rotates the id
+        // reuses these tokens instead of calling Keycloak; once refreshed, the token's own schedule applies
+        if (rotationDueAt < refreshDueAt
+                && sessionData.getTokenIssuedAt() < rotationDueAt - leadMillis - jitterMillis) {
+            return rotationDueAt;
+        }
+        return refreshDueAt;
+    }
+
+    private static class ScheduledRefresh implements Delayed {
+        private final String sessionId;
+        private final long refreshAt;
+
+        ScheduledRefresh(String sessionId, long refreshAt) {
+            this.sessionId = sessionId;
+            this.refreshAt = refreshAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(refreshAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(refreshAt, ((ScheduledRefresh) other).refreshAt);
+        }
+    }
+}
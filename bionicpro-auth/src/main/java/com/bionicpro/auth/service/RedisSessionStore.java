@@ -0,0 +1,192 @@
+package com.bionicpro.auth.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(name = "session.store.type", havingValue = "redis", matchIfMissing = true)
+public class RedisSessionStore implements SessionStore {
+
+    private static final String SESSION_PREFIX = "session:";
+    private static final String USER_SESSIONS_PREFIX = "user-sessions:";
+    private static final byte[] RAW_SESSION_PREFIX = SESSION_PREFIX.getBytes(StandardCharsets.UTF_8);
+
+    private static final RedisScript<Long> ROTATE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "if redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[2], 'NX') then " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return 1 end " +
+            "return 0", Long.class);
+    // The user index is a ZSET scored by session expiry, so members of expired sessions are trimmed on write.
+    // An index left as a SET by an earlier version is converted first, scored by the SET's own expiry.
+    private static final RedisScript<Long> CREATE_INDEXED = new DefaultRedisScript<>(
+            "if redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2], 'NX') then " +
+            upgradeIndex("KEYS[2]", "ARGV[4]") +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[4]) " +
+            "redis.call('ZADD', KEYS[2], tonumber(ARGV[4]) + tonumber(ARGV[2]), ARGV[3]) " +
+            "if redis.call('PTTL', KEYS[2]) < tonumber(ARGV[2]) then redis.call('PEXPIRE', KEYS[2], ARGV[2]) end " +
+            "return 1 end " +
+            "return 0", Long.class);
+    private static final RedisScript<Long> ROTATE_INDEXED = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "if redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[2], 'NX') then " +
+            "redis.call('DEL', KEYS[1]) " +
+            upgradeIndex("KEYS[3]", "ARGV[5]") +
+            "redis.call('ZREM', KEYS[3], ARGV[3]) " +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[3], '-inf', ARGV[5]) " +
+            "redis.call('ZADD', KEYS[3], tonumber(ARGV[5]) + tonumber(ARGV[2]), ARGV[4]) " +
+            "if redis.call('PTTL', KEYS[3]) < tonumber(ARGV[2]) then redis.call('PEXPIRE', KEYS[3], ARGV[2]) end " +
+            "return 1 end " +
+            "return 0", Long.class);
+    private static final RedisScript<Long> DELETE_INDEXED = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1]) " +
+            upgradeIndex("KEYS[2]", "ARGV[2]") +
+            "return redis.call('ZREM', KEYS[2], ARGV[1])", Long.class);
+    private static final byte[] LIVE_INDEXED = bytes(
+            upgradeIndex("KEYS[1]", "ARGV[1]") +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[1]) " +
+            "return redis.call('ZRANGE', KEYS[1], 0, -1)");
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public RedisSessionStore(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public byte[] get(String sessionId) {
+        return redisTemplate.execute(
+                (RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey(sessionId)));
+    }
+
+    @Override
+    public boolean exists(String sessionId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key(sessionId)));
+    }
+
+    @Override
+    public boolean createIfAbsent(String sessionId, String subject, byte[] value, long ttlMillis) {
+        if (subject == null) {
+            return Boolean.TRUE.equals(redisTemplate.execute((RedisCallback<Boolean>) connection ->
+                    connection.stringCommands().set(rawKey(sessionId), value,
+                            Expiration.from(ttlMillis, TimeUnit.MILLISECONDS),
+                            RedisStringCommands.SetOption.ifAbsent())));
+        }
+        Long created = redisTemplate.execute(CREATE_INDEXED, RedisSerializer.byteArray(), null,
+                List.of(key(sessionId), indexKey(subject)), value, ttlArgument(ttlMillis), bytes(sessionId),
+                nowArgument());
+        return created != null && created == 1;
+    }
+
+    @Override
+    public boolean update(String sessionId, byte[] value) {
+        // SET XX KEEPTTL: a session removed by logout or revocation is not brought back by a late refresh
+        return Boolean.TRUE.equals(redisTemplate.execute((RedisCallback<Boolean>) connection ->
+                connection.stringCommands().set(rawKey(sessionId), value, Expiration.keepTtl(),
+                        RedisStringCommands.SetOption.ifPresent())));
+    }
+
+    @Override
+    public boolean rotate(String oldSessionId, String newSessionId, String subject, byte[] value, long ttlMillis) {
+        Long rotated = subject == null
+                ? redisTemplate.execute(ROTATE, RedisSerializer.byteArray(), null,
+                        List.of(key(oldSessionId), key(newSessionId)), value, ttlArgument(ttlMillis))
+                : redisTemplate.execute(ROTATE_INDEXED, RedisSerializer.byteArray(), null,
+                        List.of(key(oldSessionId), key(newSessionId), indexKey(subject)),
+                        value, ttlArgument(ttlMillis), bytes(oldSessionId), bytes(newSessionId), nowArgument());
+        return rotated != null && rotated == 1;
+    }
+
+    @Override
+    public void delete(String sessionId, String subject) {
+        if (subject == null) {
+            redisTemplate.delete(key(sessionId));
+            return;
+        }
+        redisTemplate.execute(DELETE_INDEXED, RedisSerializer.byteArray(), null,
+                List.of(key(sessionId), indexKey(subject)), bytes(sessionId), nowArgument());
+    }
+
+    @Override
+    public List<String> revokeAll(String subject) {
+        byte[] indexKey = bytes(indexKey(subject));
+        List<byte[]> members = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.scriptingCommands().eval(LIVE_INDEXED, ReturnType.MULTI, 1, indexKey, nowArgument()));
+        if (members == null || members.isEmpty()) {
+            return List.of();
+        }
+
+        byte[][] sessionIds = members.toArray(new byte[0][]);
+        byte[][] sessionKeys = new byte[sessionIds.length][];
+        List<String> revoked = new ArrayList<>(sessionIds.length);
+        for (int i = 0; i < sessionIds.length; i++) {
+            sessionKeys[i] = rawKey(sessionIds[i]);
+            revoked.add(new String(sessionIds[i], StandardCharsets.UTF_8));
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.keyCommands().del(sessionKeys);
+            connection.zSetCommands().zRem(indexKey, sessionIds);
+            return null;
+        });
+        return revoked;
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    private static String key(String sessionId) {
+        return SESSION_PREFIX + sessionId;
+    }
+
+    private static String indexKey(String subject) {
+        return USER_SESSIONS_PREFIX + subject;
+    }
+
+    private static byte[] rawKey(String sessionId) {
+        return bytes(key(sessionId));
+    }
+
+    private static byte[] rawKey(byte[] sessionId) {
+        byte[] key = new byte[RAW_SESSION_PREFIX.length + sessionId.length];
+        System.arraycopy(RAW_SESSION_PREFIX, 0, key, 0, RAW_SESSION_PREFIX.length);
+        System.arraycopy(sessionId, 0, key, RAW_SESSION_PREFIX.length, sessionId.length);
+        return key;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ttlArgument(long ttlMillis) {
+        return bytes(Long.toString(ttlMillis));
+    }
+
+    private static String upgradeIndex(String indexKey, String now) {
+        return "if redis.call('TYPE', " + indexKey + ").ok == 'set' then " +
+                "local members = redis.call('SMEMBERS', " + indexKey + ") " +
+                "local ttl = redis.call('PTTL', " + indexKey + ") " +
+                "local expiresAt = tonumber(" + now + ") + math.max(ttl, 0) " +
+                "redis.call('DEL', " + indexKey + ") " +
+                "for _, member in ipairs(members) do redis.call('ZADD', " + indexKey + ", expiresAt, member) end " +
+                "if ttl > 0 then redis.call('PEXPIRE', " + indexKey + ", ttl) end " +
+                "end ";
+    }
+
+    private static byte[] nowArgument() {
+        return bytes(Long.toString(System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.bionicpro.auth.service;
+
+import com.bionicpro.auth.model.SessionData;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+@Component
+public class SessionCache implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionCache.class);
+    private static final char MESSAGE_SEPARATOR = '|';
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<String, SessionData> cache;
+    private final boolean enabled;
+    private final boolean distributed;
+    private final String invalidationChannel;
+    private final String nodeId;
+
+    public SessionCache(
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            SessionStore sessionStore,
+            MeterRegistry meterRegistry,
+            @Value("${session.cache.enabled:true}") boolean enabled,
+            @Value("${session.cache.max-size:10000}") long maxSize,
+            @Value("${session.cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${session.cache.invalidation-channel:session-invalidation}") String invalidationChannel) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.enabled = enabled;
+        this.distributed = sessionStore.isShared();
+        this.invalidationChannel = invalidationChannel;
+        this.nodeId = UUID.randomUUID().toString();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "sessions");
+        if (enabled && distributed) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(invalidationChannel));
+        }
+    }
+
+    public SessionData get(String sessionId) {
+        if (!enabled) {
+            return null;
+        }
+        SessionData sessionData = cache.getIfPresent(sessionId);
+        return sessionData != null ? sessionData.copy() : null;
+    }
+
+    public SessionData get(String sessionId, Function<String, SessionData> loader) {
+        // An invalidation racing the load waits for it and then removes the loaded value,
+        // so a session deleted mid-load is never left in the cache
+        SessionData sessionData = enabled ? cache.get(sessionId, loader) : loader.apply(sessionId);
+        return sessionData != null ? sessionData.copy() : null;
+    }
+
+    public void put(String sessionId, SessionData sessionData) {
+        if (enabled) {
+            cache.put(sessionId, sessionData.copy());
+        }
+    }
+
+    public void invalidate(String sessionId) {
+        if (!enabled) {
+            return;
+        }
+        cache.invalidate(sessionId);
+        if (!distributed) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(invalidationChannel, nodeId + MESSAGE_SEPARATOR + sessionId);
+        } catch (Exception e) {
+            logger.warn("Failed to publish session invalidation for {}", sessionId, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        String sessionId = body.substring(separator + 1);
+        cache.invalidate(sessionId);
+        logger.debug("Invalidated cached session from remote node: {}", sessionId);
+    }
+}
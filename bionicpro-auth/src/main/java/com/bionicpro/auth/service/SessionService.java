@@ -1,13 +1,15 @@
 package com.bionicpro.auth.service;
 
+import com.bionicpro.auth.config.SessionDataRedisSerializer;
 import com.bionicpro.auth.model.SessionData;
 import com.bionicpro.auth.util.EncryptionUtil;
+import com.bionicpro.auth.util.JwtClaimsParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -15,73 +17,207 @@ import java.util.concurrent.TimeUnit;
 public class SessionService {
     
     private static final Logger logger = LoggerFactory.getLogger(SessionService.class);
-    private final RedisTemplate<String, Object> redisTemplate;
+    private static final int MAX_SESSION_ID_ATTEMPTS = 3;
+    private final SessionStore sessionStore;
+    private final SessionDataRedisSerializer serializer = new SessionDataRedisSerializer();
     private final EncryptionUtil encryptionUtil;
-    private final long sessionTtlSeconds;
+    private final SessionCache sessionCache;
+    private final JwtClaimsParser jwtClaimsParser;
+    private final AuthMetrics authMetrics;
+    private final long sessionTtlMillis;
     private final long accessTokenTtlSeconds;
 
     public SessionService(
-            RedisTemplate<String, Object> redisTemplate,
+            SessionStore sessionStore,
             EncryptionUtil encryptionUtil,
+            SessionCache sessionCache,
+            JwtClaimsParser jwtClaimsParser,
+            AuthMetrics authMetrics,
             @Value("${token.session-ttl-seconds}") long sessionTtlSeconds,
             @Value("${token.access-ttl-seconds}") long accessTokenTtlSeconds) {
-        this.redisTemplate = redisTemplate;
+        this.sessionStore = sessionStore;
         this.encryptionUtil = encryptionUtil;
-        this.sessionTtlSeconds = sessionTtlSeconds;
+        this.sessionCache = sessionCache;
+        this.jwtClaimsParser = jwtClaimsParser;
+        this.authMetrics = authMetrics;
+        this.sessionTtlMillis = TimeUnit.SECONDS.toMillis(sessionTtlSeconds);
         this.accessTokenTtlSeconds = accessTokenTtlSeconds;
     }
 
-    public String createSession(String accessToken, String refreshToken) {
-        String sessionId = UUID.randomUUID().toString();
-        String encryptedRefreshToken = encryptionUtil.encrypt(refreshToken);
-        
-        SessionData sessionData = new SessionData(accessToken, encryptedRefreshToken, System.currentTimeMillis());
-        redisTemplate.opsForValue().set("session:" + sessionId, sessionData, sessionTtlSeconds, TimeUnit.SECONDS);
-        
-        logger.debug("Created session: {}", sessionId);
-        return sessionId;
+    public String createSession(String accessToken, String refreshToken, int expiresIn) {
+        String encryptedRefreshToken = authMetrics.time(AuthMetrics.ENCRYPT,
+                () -> encryptionUtil.encrypt(refreshToken));
+        long createdAt = System.currentTimeMillis();
+        long expiresAt = resolveExpiresAt(accessToken, expiresIn, createdAt);
+        byte[] value = serializer.serialize(new SessionData(accessToken, encryptedRefreshToken, createdAt, expiresAt));
+        String subject = jwtClaimsParser.parse(accessToken).getSubject();
+
+        for (int attempt = 0; attempt < MAX_SESSION_ID_ATTEMPTS; attempt++) {
+            String sessionId = UUID.randomUUID().toString();
+            boolean created = authMetrics.time(AuthMetrics.STORE_WRITE,
+                    () -> sessionStore.createIfAbsent(sessionId, subject, value, sessionTtlMillis));
+            if (created) {
+                sessionCache.put(sessionId, new SessionData(accessToken, refreshToken, createdAt, expiresAt));
+                logger.debug("Created session: {}", sessionId);
+                return sessionId;
+            }
+        }
+        throw new RuntimeException("Failed to allocate session id");
     }
 
     public SessionData getSession(String sessionId) {
-        SessionData sessionData = (SessionData) redisTemplate.opsForValue().get("session:" + sessionId);
+        return sessionCache.get(sessionId, this::loadSession);
+    }
+
+    private SessionData loadSession(String sessionId) {
+        byte[] value = authMetrics.time(AuthMetrics.STORE_READ, () -> sessionStore.get(sessionId));
+        if (value == null) {
+            return null;
+        }
+
+        SessionData sessionData = authMetrics.time(AuthMetrics.DECODE,
+                () -> (SessionData) serializer.deserialize(value));
         if (sessionData != null) {
-            sessionData.setRefreshToken(encryptionUtil.decrypt(sessionData.getRefreshToken()));
+            String encryptedRefreshToken = sessionData.getRefreshToken();
+            sessionData.setRefreshToken(authMetrics.time(AuthMetrics.DECRYPT,
+                    () -> encryptionUtil.decrypt(encryptedRefreshToken)));
         }
         return sessionData;
     }
 
-    public String rotateSession(String oldSessionId, String accessToken, String refreshToken) {
-        deleteSession(oldSessionId);
-        return createSession(accessToken, refreshToken);
+    public boolean sessionExists(String sessionId) {
+        if (sessionCache.get(sessionId) != null) {
+            return true;
+        }
+        return sessionStore.exists(sessionId);
     }
 
-    public void updateSession(String sessionId, String accessToken, String refreshToken) {
-        String encryptedRefreshToken = encryptionUtil.encrypt(refreshToken);
-        SessionData sessionData = new SessionData(accessToken, encryptedRefreshToken, System.currentTimeMillis());
-        
-        Long ttl = redisTemplate.getExpire("session:" + sessionId, TimeUnit.SECONDS);
-        if (ttl != null && ttl > 0) {
-            redisTemplate.opsForValue().set("session:" + sessionId, sessionData, ttl, TimeUnit.SECONDS);
-        } else {
-            redisTemplate.opsForValue().set("session:" + sessionId, sessionData, sessionTtlSeconds, TimeUnit.SECONDS);
+    public String rotateSession(String oldSessionId, String accessToken, String refreshToken, int expiresIn) {
+        long createdAt = System.currentTimeMillis();
+        long expiresAt = resolveExpiresAt(accessToken, expiresIn, createdAt);
+        return rotateSession(oldSessionId, new SessionData(accessToken, refreshToken, createdAt, expiresAt));
+    }
+
+    public String rotateSessionWithCurrentTokens(String oldSessionId, SessionData sessionData) {
+        // Only the session id and its rotation clock are renewed; the tokens keep their own refresh schedule
+        return rotateSession(oldSessionId, new SessionData(sessionData.getAccessToken(),
+                sessionData.getRefreshToken(), System.currentTimeMillis(),
+                sessionData.getAccessTokenExpiresAt(), sessionData.getTokenIssuedAt()));
+    }
+
+    private String rotateSession(String oldSessionId, SessionData sessionData) {
+        String encryptedRefreshToken = authMetrics.time(AuthMetrics.ENCRYPT,
+                () -> encryptionUtil.encrypt(sessionData.getRefreshToken()));
+        byte[] value = serializer.serialize(new SessionData(sessionData.getAccessToken(), encryptedRefreshToken,
+                sessionData.getCreatedAt(), sessionData.getAccessTokenExpiresAt(), sessionData.getTokenIssuedAt()));
+        String subject = jwtClaimsParser.parse(sessionData.getAccessToken()).getSubject();
+
+        for (int attempt = 0; attempt < MAX_SESSION_ID_ATTEMPTS; attempt++) {
+            String newSessionId = UUID.randomUUID().toString();
+            boolean rotated = authMetrics.time(AuthMetrics.STORE_WRITE,
+                    () -> sessionStore.rotate(oldSessionId, newSessionId, subject, value, sessionTtlMillis));
+            if (rotated) {
+                sessionCache.invalidate(oldSessionId);
+                sessionCache.put(newSessionId, sessionData);
+                logger.debug("Rotated session {} to {}", oldSessionId, newSessionId);
+                return newSessionId;
+            }
+            if (!sessionStore.exists(oldSessionId)) {
+                sessionCache.invalidate(oldSessionId);
+                throw new RuntimeException("Session not found");
+            }
         }
+        throw new RuntimeException("Failed to allocate session id");
+    }
+
+    public boolean updateSession(String sessionId, long createdAt, String accessToken, String refreshToken,
+                                 int expiresIn) {
+        String encryptedRefreshToken = authMetrics.time(AuthMetrics.ENCRYPT,
+                () -> encryptionUtil.encrypt(refreshToken));
+        long issuedAt = System.currentTimeMillis();
+        long expiresAt = resolveExpiresAt(accessToken, expiresIn, issuedAt);
+        byte[] value = serializer.serialize(
+                new SessionData(accessToken, encryptedRefreshToken, createdAt, expiresAt, issuedAt));
+
+        boolean updated = authMetrics.time(AuthMetrics.STORE_WRITE, () -> sessionStore.update(sessionId, value));
+        sessionCache.invalidate(sessionId);
+        if (!updated) {
+            logger.debug("Session {} no longer exists, dropping refreshed tokens", sessionId);
+            return false;
+        }
+        sessionCache.put(sessionId, new SessionData(accessToken, refreshToken, createdAt, expiresAt, issuedAt));
         
         logger.debug("Updated session: {}", sessionId);
+        return true;
     }
 
     public void deleteSession(String sessionId) {
-        redisTemplate.delete("session:" + sessionId);
+        sessionStore.delete(sessionId, getSubject(sessionId));
+        sessionCache.invalidate(sessionId);
         logger.debug("Deleted session: {}", sessionId);
     }
 
+    public String getSubject(String sessionId) {
+        SessionData sessionData = sessionCache.get(sessionId);
+        if (sessionData == null) {
+            byte[] value = authMetrics.time(AuthMetrics.STORE_READ, () -> sessionStore.get(sessionId));
+            if (value == null) {
+                return null;
+            }
+            sessionData = (SessionData) serializer.deserialize(value);
+        }
+        return sessionData != null ? jwtClaimsParser.parse(sessionData.getAccessToken()).getSubject() : null;
+    }
+
+    public int revokeUserSessions(String subject) {
+        List<String> revoked = authMetrics.time(AuthMetrics.STORE_WRITE, () -> sessionStore.revokeAll(subject));
+        revoked.forEach(sessionCache::invalidate);
+        logger.debug("Revoked {} sessions of user {}", revoked.size(), subject);
+        return revoked.size();
+    }
+
     public boolean isAccessTokenExpired(SessionData sessionData) {
-        long elapsed = System.currentTimeMillis() - sessionData.getCreatedAt();
-        return elapsed >= (accessTokenTtlSeconds * 1000);
+        return System.currentTimeMillis() >= accessTokenExpiresAt(sessionData);
     }
 
     public boolean shouldRotateSession(SessionData sessionData) {
-        long elapsed = System.currentTimeMillis() - sessionData.getCreatedAt();
-        return elapsed >= (accessTokenTtlSeconds * 1000 / 2);
+        // Measured from when the session id was issued, so token refreshes that keep the id do not postpone it
+        return System.currentTimeMillis() >= rotationDueAt(sessionData);
+    }
+
+    public long rotationDueAt(SessionData sessionData) {
+        return sessionData.getCreatedAt() + halfTokenLifetime(sessionData);
+    }
+
+    public boolean hasFreshTokens(SessionData sessionData) {
+        // Refreshed in place since the session id was issued and not yet due again, e.g. by the proactive refresher
+        return sessionData.getTokenIssuedAt() > sessionData.getCreatedAt()
+                && System.currentTimeMillis() < refreshDueAt(sessionData);
+    }
+
+    public long refreshDueAt(SessionData sessionData) {
+        return sessionData.getTokenIssuedAt() + halfTokenLifetime(sessionData);
+    }
+
+    private long halfTokenLifetime(SessionData sessionData) {
+        return (accessTokenExpiresAt(sessionData) - sessionData.getTokenIssuedAt()) / 2;
+    }
+
+    private long accessTokenExpiresAt(SessionData sessionData) {
+        if (sessionData.getAccessTokenExpiresAt() > 0) {
+            return sessionData.getAccessTokenExpiresAt();
+        }
+        return sessionData.getTokenIssuedAt() + accessTokenTtlSeconds * 1000;
     }
-}
 
+    private long resolveExpiresAt(String accessToken, int expiresIn, long issuedAt) {
+        long expiresAt = jwtClaimsParser.parse(accessToken).getExpiresAt();
+        if (expiresAt > 0) {
+            return expiresAt;
+        }
+        if (expiresIn > 0) {
+            return issuedAt + expiresIn * 1000L;
+        }
+        return issuedAt + accessTokenTtlSeconds * 1000;
+    }
+}
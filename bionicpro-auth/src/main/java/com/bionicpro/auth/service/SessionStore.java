@@ -0,0 +1,22 @@
+package com.bionicpro.auth.service;
+
+import java.util.List;
+
+public interface SessionStore {
+
+    byte[] get(String sessionId);
+
+    boolean exists(String sessionId);
+
+    boolean createIfAbsent(String sessionId, String subject, byte[] value, long ttlMillis);
+
+    boolean update(String sessionId, byte[] value);
+
+    boolean rotate(String oldSessionId, String newSessionId, String subject, byte[] value, long ttlMillis);
+
+    void delete(String sessionId, String subject);
+
+    List<String> revokeAll(String subject);
+
+    boolean isShared();
+}
@@ -0,0 +1,191 @@
+package com.bionicpro.auth.service;
+
+import com.bionicpro.auth.config.KeycloakProperties;
+import com.bionicpro.auth.util.EncryptionUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Component
+public class TokenRefreshCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRefreshCoordinator.class);
+    private static final long POLL_INTERVAL_MILLIS = 25;
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "return 0", Long.class);
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('DEL', KEYS[1]) end " +
+            "return 0", Long.class);
+    private final StringRedisTemplate stringRedisTemplate;
+    private final EncryptionUtil encryptionUtil;
+    private final boolean distributed;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Duration leaseDuration;
+    private final long waitTimeoutMillis;
+    private final String nodeId;
+    private final ScheduledExecutorService leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "refresh-lease-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TokenRefreshCoordinator(
+            StringRedisTemplate stringRedisTemplate,
+            SessionStore sessionStore,
+            EncryptionUtil encryptionUtil,
+            KeycloakProperties keycloakProperties,
+            @Value("${token.refresh-lease-margin-ms:1000}") long leaseMarginMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.encryptionUtil = encryptionUtil;
+        this.distributed = sessionStore.isShared();
+        // The lease must outlive the slowest Keycloak call: bulkhead wait, pool checkout, connect and response
+        KeycloakProperties.Http http = keycloakProperties.getHttp();
+        long worstCaseCallMillis = http.getMaxWaitMs() + http.getConnectionRequestTimeoutMs()
+                + http.getConnectTimeoutMs() + http.getResponseTimeoutMs();
+        this.leaseDuration = Duration.ofMillis(worstCaseCallMillis + leaseMarginMillis);
+        this.waitTimeoutMillis = leaseDuration.toMillis();
+        this.nodeId = UUID.randomUUID().toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseRenewer.shutdownNow();
+    }
+
+    public String execute(String sessionId, Supplier<String> refresh) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(sessionId, future);
+        if (existing != null) {
+            logger.debug("Joining in-flight refresh for session: {}", sessionId);
+            return await(existing);
+        }
+
+        try {
+            String accessToken = distributed ? executeWithLease(sessionId, refresh) : refresh.get();
+            future.complete(accessToken);
+            return accessToken;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(sessionId, future);
+        }
+    }
+
+    private String executeWithLease(String sessionId, Supplier<String> refresh) {
+        String leaseKey = "refresh-lease:" + sessionId;
+        String resultKey = "refresh-result:" + sessionId;
+
+        String sharedResult = readResult(resultKey);
+        if (sharedResult != null) {
+            return sharedResult;
+        }
+
+        Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(leaseKey, nodeId, leaseDuration);
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                String accessToken = runWithRenewal(leaseKey, refresh);
+                stringRedisTemplate.opsForValue().set(resultKey, encryptionUtil.encrypt(accessToken), leaseDuration);
+                return accessToken;
+            } finally {
+                releaseLease(leaseKey);
+            }
+        }
+
+        logger.debug("Waiting for refresh of session {} on another node", sessionId);
+        long deadline = System.currentTimeMillis() + waitTimeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            sharedResult = readResult(resultKey);
+            if (sharedResult != null) {
+                return sharedResult;
+            }
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(leaseKey))) {
+                break;
+            }
+            sleep();
+        }
+
+        sharedResult = readResult(resultKey);
+        if (sharedResult != null) {
+            return sharedResult;
+        }
+        logger.warn("Remote refresh of session {} did not complete, refreshing locally", sessionId);
+        return refresh.get();
+    }
+
+    private String readResult(String resultKey) {
+        String encrypted = stringRedisTemplate.opsForValue().get(resultKey);
+        return encrypted != null ? encryptionUtil.decrypt(encrypted) : null;
+    }
+
+    private String runWithRenewal(String leaseKey, Supplier<String> refresh) {
+        long renewIntervalMillis = Math.max(1, leaseDuration.toMillis() / 3);
+        ScheduledFuture<?> renewal = leaseRenewer.scheduleAtFixedRate(() -> {
+            try {
+                stringRedisTemplate.execute(RENEW, List.of(leaseKey), nodeId,
+                        Long.toString(leaseDuration.toMillis()));
+            } catch (Exception e) {
+                logger.warn("Failed to renew refresh lease {}", leaseKey, e);
+            }
+        }, renewIntervalMillis, renewIntervalMillis, TimeUnit.MILLISECONDS);
+        try {
+            return refresh.get();
+        } finally {
+            renewal.cancel(false);
+        }
+    }
+
+    private void releaseLease(String leaseKey) {
+        try {
+            stringRedisTemplate.execute(RELEASE, List.of(leaseKey), nodeId);
+        } catch (Exception e) {
+            logger.warn("Failed to release refresh lease {}", leaseKey, e);
+        }
+    }
+
+    private String await(CompletableFuture<String> future) {
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Token refresh failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out waiting for token refresh", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for token refresh", e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for token refresh", e);
+        }
+    }
+}
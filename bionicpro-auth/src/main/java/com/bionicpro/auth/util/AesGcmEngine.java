@@ -0,0 +1,93 @@
+package com.bionicpro.auth.util;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+
+public class AesGcmEngine {
+
+    public static final int HEADER_LENGTH = 1;
+    public static final int IV_LENGTH = 12;
+    public static final int TAG_LENGTH = 16;
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int OVERHEAD = HEADER_LENGTH + IV_LENGTH + TAG_LENGTH;
+
+    private final SecretKey[] keys;
+    private final int currentVersion;
+    private final ArrayBlockingQueue<Cipher> pool;
+    private final SecureRandom secureRandom;
+
+    public AesGcmEngine(SecretKey[] keys, int currentVersion, int poolSize) {
+        if (currentVersion < 0 || currentVersion >= keys.length || keys[currentVersion] == null) {
+            throw new IllegalArgumentException("No key configured for version " + currentVersion);
+        }
+        this.keys = keys.clone();
+        this.currentVersion = currentVersion;
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        try {
+            this.secureRandom = SecureRandom.getInstance("DRBG");
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Failed to initialize secure random", e);
+        }
+    }
+
+    public byte[] encrypt(byte[] plainText) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        secureRandom.nextBytes(iv);
+        byte[] out = new byte[plainText.length + OVERHEAD];
+        out[0] = (byte) currentVersion;
+        System.arraycopy(iv, 0, out, HEADER_LENGTH, IV_LENGTH);
+
+        Cipher cipher = borrow();
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, keys[currentVersion],
+                    new GCMParameterSpec(TAG_LENGTH * 8, out, HEADER_LENGTH, IV_LENGTH));
+            cipher.updateAAD(out, 0, HEADER_LENGTH);
+            cipher.doFinal(plainText, 0, plainText.length, out, HEADER_LENGTH + IV_LENGTH);
+        } finally {
+            release(cipher);
+        }
+        return out;
+    }
+
+    public byte[] decrypt(byte[] cipherText) throws GeneralSecurityException {
+        if (cipherText.length < OVERHEAD) {
+            throw new GeneralSecurityException("Cipher text too short");
+        }
+        SecretKey key = keyFor(cipherText[0] & 0xFF);
+
+        Cipher cipher = borrow();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key,
+                    new GCMParameterSpec(TAG_LENGTH * 8, cipherText, HEADER_LENGTH, IV_LENGTH));
+            cipher.updateAAD(cipherText, 0, HEADER_LENGTH);
+            return cipher.doFinal(cipherText, HEADER_LENGTH + IV_LENGTH,
+                    cipherText.length - HEADER_LENGTH - IV_LENGTH);
+        } finally {
+            release(cipher);
+        }
+    }
+
+    public int getCurrentVersion() {
+        return currentVersion;
+    }
+
+    private SecretKey keyFor(int version) throws GeneralSecurityException {
+        if (version >= keys.length || keys[version] == null) {
+            throw new GeneralSecurityException("Unknown key version " + version);
+        }
+        return keys[version];
+    }
+
+    private Cipher borrow() throws GeneralSecurityException {
+        Cipher cipher = pool.poll();
+        return cipher != null ? cipher : Cipher.getInstance(TRANSFORMATION);
+    }
+
+    private void release(Cipher cipher) {
+        pool.offer(cipher);
+    }
+}
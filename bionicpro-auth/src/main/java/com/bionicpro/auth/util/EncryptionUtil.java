@@ -1,42 +1,44 @@
 package com.bionicpro.auth.util;
 
+import com.bionicpro.auth.config.EncryptionProperties;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.Security;
 import java.util.Base64;
+import java.util.Map;
 
 @Component
 public class EncryptionUtil {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(EncryptionUtil.class);
     private static final String ALGORITHM = "AES";
-    private final SecretKey secretKey;
+    private static final String VERSIONED_PREFIX = "$";
+    private static final int MAX_KEY_VERSION = 255;
+    private final SecretKey legacyKey;
+    private final AesGcmEngine engine;
 
     static {
         Security.addProvider(new BouncyCastleProvider());
     }
 
-    public EncryptionUtil(@Value("${encryption.key}") String key) {
+    public EncryptionUtil(EncryptionProperties properties) {
         try {
-            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
-            if (keyBytes.length < 16) {
-                byte[] paddedKey = new byte[16];
-                System.arraycopy(keyBytes, 0, paddedKey, 0, keyBytes.length);
-                keyBytes = paddedKey;
-            } else if (keyBytes.length > 16) {
-                byte[] trimmedKey = new byte[16];
-                System.arraycopy(keyBytes, 0, trimmedKey, 0, 16);
-                keyBytes = trimmedKey;
+            this.legacyKey = legacyKey(properties.getKey());
+
+            SecretKey[] keys = new SecretKey[MAX_KEY_VERSION + 1];
+            for (Map.Entry<Integer, String> previousKey : properties.getPreviousKeys().entrySet()) {
+                keys[checkVersion(previousKey.getKey())] = deriveKey(previousKey.getValue());
             }
-            this.secretKey = new SecretKeySpec(keyBytes, ALGORITHM);
+            keys[checkVersion(properties.getKeyVersion())] = deriveKey(properties.getKey());
+            this.engine = new AesGcmEngine(keys, properties.getKeyVersion(), properties.getPoolSize());
         } catch (Exception e) {
             logger.error("Failed to initialize encryption key", e);
             throw new RuntimeException("Failed to initialize encryption", e);
@@ -44,21 +46,40 @@ public class EncryptionUtil {
     }
 
     public String encrypt(String plainText) {
+        return VERSIONED_PREFIX + Base64.getEncoder().encodeToString(
+                encrypt(plainText.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public String decrypt(String encryptedText) {
+        if (!encryptedText.startsWith(VERSIONED_PREFIX)) {
+            return decryptLegacy(encryptedText);
+        }
+        byte[] cipherText = Base64.getDecoder().decode(encryptedText.substring(VERSIONED_PREFIX.length()));
+        return new String(decrypt(cipherText), StandardCharsets.UTF_8);
+    }
+
+    public byte[] encrypt(byte[] plainText) {
         try {
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-            byte[] encryptedBytes = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(encryptedBytes);
+            return engine.encrypt(plainText);
         } catch (Exception e) {
             logger.error("Failed to encrypt data", e);
             throw new RuntimeException("Encryption failed", e);
         }
     }
 
-    public String decrypt(String encryptedText) {
+    public byte[] decrypt(byte[] cipherText) {
+        try {
+            return engine.decrypt(cipherText);
+        } catch (Exception e) {
+            logger.error("Failed to decrypt data", e);
+            throw new RuntimeException("Decryption failed", e);
+        }
+    }
+
+    private String decryptLegacy(String encryptedText) {
         try {
             Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
+            cipher.init(Cipher.DECRYPT_MODE, legacyKey);
             byte[] decryptedBytes = cipher.doFinal(Base64.getDecoder().decode(encryptedText));
             return new String(decryptedBytes, StandardCharsets.UTF_8);
         } catch (Exception e) {
@@ -66,5 +87,30 @@ public class EncryptionUtil {
             throw new RuntimeException("Decryption failed", e);
         }
     }
-}
 
+    private static int checkVersion(int version) {
+        if (version < 0 || version > MAX_KEY_VERSION) {
+            throw new IllegalArgumentException("Key version must be between 0 and " + MAX_KEY_VERSION);
+        }
+        return version;
+    }
+
+    private static SecretKey deriveKey(String key) throws Exception {
+        byte[] keyBytes = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+        return new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    private static SecretKey legacyKey(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length < 16) {
+            byte[] paddedKey = new byte[16];
+            System.arraycopy(keyBytes, 0, paddedKey, 0, keyBytes.length);
+            keyBytes = paddedKey;
+        } else if (keyBytes.length > 16) {
+            byte[] trimmedKey = new byte[16];
+            System.arraycopy(keyBytes, 0, trimmedKey, 0, 16);
+            keyBytes = trimmedKey;
+        }
+        return new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+}
@@ -0,0 +1,85 @@
+package com.bionicpro.auth.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Base64;
+
+@Component
+public class JwtClaimsParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtClaimsParser.class);
+    private static final Claims EMPTY = new Claims(0, null);
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Cache<String, Claims> cache = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
+    public Claims parse(String token) {
+        if (token == null) {
+            return EMPTY;
+        }
+        return cache.get(token, this::decode);
+    }
+
+    private Claims decode(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0) {
+            return EMPTY;
+        }
+
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(first + 1, second));
+            long expiresAt = 0;
+            String subject = null;
+            try (JsonParser parser = jsonFactory.createParser(payload)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return EMPTY;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if ("exp".equals(field) && value.isNumeric()) {
+                        expiresAt = parser.getLongValue() * 1000;
+                    } else if ("sub".equals(field) && value == JsonToken.VALUE_STRING) {
+                        subject = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            return new Claims(expiresAt, subject);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Failed to parse JWT claims", e);
+            return EMPTY;
+        }
+    }
+
+    public static class Claims {
+        private final long expiresAt;
+        private final String subject;
+
+        public Claims(long expiresAt, String subject) {
+            this.expiresAt = expiresAt;
+            this.subject = subject;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+    }
+}
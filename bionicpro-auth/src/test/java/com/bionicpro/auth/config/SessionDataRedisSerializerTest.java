@@ -0,0 +1,118 @@
+package com.bionicpro.auth.config;
+
+import com.bionicpro.auth.model.SessionData;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionDataRedisSerializerTest {
+
+    private static final String ACCESS_TOKEN = jwt("{\"sub\":\"user-1\",\"exp\":1700000300}");
+    private static final String REFRESH_TOKEN = "$" + Base64.getEncoder().encodeToString(new byte[]{1, 2, 3, 4, 5, 6});
+
+    private final SessionDataRedisSerializer serializer = new SessionDataRedisSerializer();
+
+    @Test
+    void roundTripsCurrentFormat() {
+        byte[] bytes = serializer.serialize(new SessionData(ACCESS_TOKEN, REFRESH_TOKEN, 1_000L, 301_000L, 2_000L));
+
+        assertThat(bytes[0]).isEqualTo(SessionDataRedisSerializer.MAGIC);
+        assertThat(bytes[1]).isEqualTo(SessionDataRedisSerializer.FORMAT_VERSION);
+        // The access token is stored as its three decoded JWT parts
+        assertThat(bytes[2 + 3 * Long.BYTES]).isEqualTo((byte) 2);
+        SessionData decoded = (SessionData) serializer.deserialize(bytes);
+        assertThat(decoded.getAccessToken()).isEqualTo(ACCESS_TOKEN);
+        assertThat(decoded.getRefreshToken()).isEqualTo(REFRESH_TOKEN);
+        assertThat(decoded.getCreatedAt()).isEqualTo(1_000L);
+        assertThat(decoded.getAccessTokenExpiresAt()).isEqualTo(301_000L);
+        assertThat(decoded.getTokenIssuedAt()).isEqualTo(2_000L);
+    }
+
+    @Test
+    void keepsNullAndNonCanonicalTokensAsWritten() {
+        // Padding and a stray character are not what the decoders re-encode, so these stay UTF-8
+        String paddedJwt = ACCESS_TOKEN + "=";
+        String notBase64 = "$not base64";
+
+        SessionData decoded = (SessionData) serializer.deserialize(
+                serializer.serialize(new SessionData(paddedJwt, notBase64, 1_000L, 2_000L, 1_000L)));
+        assertThat(decoded.getAccessToken()).isEqualTo(paddedJwt);
+        assertThat(decoded.getRefreshToken()).isEqualTo(notBase64);
+
+        decoded = (SessionData) serializer.deserialize(
+                serializer.serialize(new SessionData(ACCESS_TOKEN, null, 1_000L, 2_000L, 1_000L)));
+        assertThat(decoded.getRefreshToken()).isNull();
+    }
+
+    @Test
+    void decodesVersion2WithIssueTimeFromCreation() throws IOException {
+        byte[] bytes = legacy(SessionDataRedisSerializer.FORMAT_VERSION_WITHOUT_ISSUED_AT, true);
+
+        SessionData decoded = (SessionData) serializer.deserialize(bytes);
+        assertThat(decoded.getAccessToken()).isEqualTo(ACCESS_TOKEN);
+        assertThat(decoded.getRefreshToken()).isEqualTo(REFRESH_TOKEN);
+        assertThat(decoded.getCreatedAt()).isEqualTo(1_000L);
+        assertThat(decoded.getAccessTokenExpiresAt()).isEqualTo(301_000L);
+        assertThat(decoded.getTokenIssuedAt()).isEqualTo(1_000L);
+    }
+
+    @Test
+    void decodesVersion1WithoutExpiry() throws IOException {
+        byte[] bytes = legacy(SessionDataRedisSerializer.FORMAT_VERSION_WITHOUT_EXPIRY, false);
+
+        SessionData decoded = (SessionData) serializer.deserialize(bytes);
+        assertThat(decoded.getAccessToken()).isEqualTo(ACCESS_TOKEN);
+        assertThat(decoded.getRefreshToken()).isEqualTo(REFRESH_TOKEN);
+        assertThat(decoded.getCreatedAt()).isEqualTo(1_000L);
+        assertThat(decoded.getAccessTokenExpiresAt()).isZero();
+        assertThat(decoded.getTokenIssuedAt()).isEqualTo(1_000L);
+    }
+
+    @Test
+    void rejectsUnknownVersionAndCorruptedFields() {
+        assertThatThrownBy(() -> serializer.deserialize(new byte[]{SessionDataRedisSerializer.MAGIC, 9, 0, 0}))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("version 9");
+
+        byte[] bytes = serializer.serialize(new SessionData("opaque", null, 1_000L, 2_000L, 1_000L));
+        // The access token length follows the three timestamps and the field type
+        bytes[2 + 3 * Long.BYTES + 1] = 0x7F;
+        assertThatThrownBy(() -> serializer.deserialize(bytes))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("Corrupted session field length");
+    }
+
+    private static byte[] legacy(byte version, boolean withExpiry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(SessionDataRedisSerializer.MAGIC);
+        out.writeByte(version);
+        out.writeLong(1_000L);
+        if (withExpiry) {
+            out.writeLong(301_000L);
+        }
+        // Written as plain UTF-8 fields, which every version reads the same way
+        for (String token : new String[]{ACCESS_TOKEN, REFRESH_TOKEN}) {
+            byte[] value = token.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(1);
+            out.writeInt(value.length);
+            out.write(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String jwt(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"RS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(new byte[]{9, 8, 7, 6, 5, 4, 3, 2, 1});
+    }
+}
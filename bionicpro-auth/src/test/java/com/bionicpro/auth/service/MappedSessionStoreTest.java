@@ -0,0 +1,149 @@
+package com.bionicpro.auth.service;
+
+import com.bionicpro.auth.config.SessionStoreProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedSessionStoreTest {
+
+    private static final long TTL_MILLIS = 60_000;
+
+    private Path directory;
+    private SessionStoreProperties properties;
+    private MappedSessionStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("mapped-sessions");
+        properties = new SessionStoreProperties();
+        properties.getMapped().setPath(directory.resolve("sessions.db").toString());
+        // One shard of 32 slots, filled close to its limit so probe chains overlap
+        properties.getMapped().setMaxSessions(24);
+        properties.getMapped().setShards(1);
+        properties.getMapped().setValueCapacity(256);
+        properties.getMapped().setSweepIntervalSeconds(3600);
+        store = new MappedSessionStore(properties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void keepsCollidingSessionsReachableAfterDeletes() {
+        List<String> sessionIds = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            String sessionId = "session-" + i;
+            sessionIds.add(sessionId);
+            assertThat(store.createIfAbsent(sessionId, "user-" + i % 3, value(sessionId), TTL_MILLIS)).isTrue();
+        }
+
+        for (int i = 0; i < sessionIds.size(); i += 3) {
+            store.delete(sessionIds.get(i), "user-" + i % 3);
+        }
+
+        assertThat(store.size()).isEqualTo(15);
+        for (int i = 0; i < sessionIds.size(); i++) {
+            String sessionId = sessionIds.get(i);
+            if (i % 3 == 0) {
+                assertThat(store.get(sessionId)).isNull();
+            } else {
+                assertThat(store.get(sessionId)).isEqualTo(value(sessionId));
+            }
+        }
+
+        // Freed slots are reused without breaking the chains that were shifted back
+        for (int i = 0; i < sessionIds.size(); i += 3) {
+            assertThat(store.createIfAbsent(sessionIds.get(i), "user-0", value("again"), TTL_MILLIS)).isTrue();
+        }
+        for (int i = 0; i < sessionIds.size(); i++) {
+            assertThat(store.exists(sessionIds.get(i))).isTrue();
+        }
+    }
+
+    @Test
+    void revokesOnlySessionsOfTheSubject() {
+        for (int i = 0; i < 20; i++) {
+            store.createIfAbsent("session-" + i, i % 2 == 0 ? "alice" : "bob", value("v" + i), TTL_MILLIS);
+        }
+        store.delete("session-0", "alice");
+        assertThat(store.rotate("session-2", "session-2b", "alice", value("rotated"), TTL_MILLIS)).isTrue();
+
+        List<String> revoked = store.revokeAll("alice");
+
+        assertThat(revoked).containsExactlyInAnyOrder("session-2b", "session-4", "session-6", "session-8",
+                "session-10", "session-12", "session-14", "session-16", "session-18");
+        assertThat(store.revokeAll("alice")).isEmpty();
+        assertThat(store.size()).isEqualTo(10);
+        for (int i = 1; i < 20; i += 2) {
+            assertThat(store.exists("session-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void rotatesSessionToNewId() {
+        store.createIfAbsent("old", "alice", value("first"), TTL_MILLIS);
+        store.createIfAbsent("taken", "bob", value("other"), TTL_MILLIS);
+
+        assertThat(store.rotate("old", "taken", "alice", value("second"), TTL_MILLIS)).isFalse();
+        assertThat(store.rotate("missing", "fresh", "alice", value("second"), TTL_MILLIS)).isFalse();
+        assertThat(store.rotate("old", "new", "alice", value("second"), TTL_MILLIS)).isTrue();
+
+        assertThat(store.get("old")).isNull();
+        assertThat(store.get("new")).isEqualTo(value("second"));
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void dropsExpiredSessions() throws InterruptedException {
+        store.createIfAbsent("short", "alice", value("short"), 1);
+        store.createIfAbsent("swept", "bob", value("swept"), 1);
+        store.createIfAbsent("long", "alice", value("long"), TTL_MILLIS);
+        Thread.sleep(10);
+
+        assertThat(store.exists("short")).isFalse();
+        assertThat(store.update("short", value("late"))).isFalse();
+        assertThat(store.get("short")).isNull();
+        assertThat(store.createIfAbsent("short", "alice", value("renewed"), TTL_MILLIS)).isTrue();
+        assertThat(store.get("short")).isEqualTo(value("renewed"));
+        assertThat(store.get("long")).isEqualTo(value("long"));
+
+        store.sweep();
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.revokeAll("bob")).isEmpty();
+    }
+
+    @Test
+    void restoresSessionsAndSubjectIndexAfterReopen() {
+        store.createIfAbsent("session-1", "alice", value("one"), TTL_MILLIS);
+        store.createIfAbsent("session-2", "alice", value("two"), TTL_MILLIS);
+        store.createIfAbsent("session-3", "bob", value("three"), TTL_MILLIS);
+        store.update("session-2", value("two-updated"));
+        store.close();
+
+        store = new MappedSessionStore(properties);
+
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.get("session-2")).isEqualTo(value("two-updated"));
+        assertThat(store.revokeAll("alice")).containsExactlyInAnyOrder("session-1", "session-2");
+        assertThat(store.get("session-3")).isEqualTo(value("three"));
+    }
+
+    private static byte[] value(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
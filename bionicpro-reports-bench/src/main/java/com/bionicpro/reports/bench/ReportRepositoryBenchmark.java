@@ -0,0 +1,131 @@
+package com.bionicpro.reports.bench;
+
+import com.bionicpro.reports.config.ClickHouseConfig;
+import com.bionicpro.reports.config.ClickHouseProperties;
+import com.bionicpro.reports.model.ReportRow;
+import com.bionicpro.reports.service.JdbcReportRepository;
+import com.bionicpro.reports.service.ReportRepository;
+import com.bionicpro.reports.service.RowBinaryReportRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reading one user's report range from {@code prosthesis_reports_mart}: the JDBC driver
+ * against RowBinary over the HTTP interface. Needs a running ClickHouse
+ * ({@code -Dclickhouse.host}, {@code -Dclickhouse.http-port}, {@code -Dclickhouse.user},
+ * {@code -Dclickhouse.password}); the data set is generated in {@value #DATABASE}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportRepositoryBenchmark {
+
+    private static final String DATABASE = "reports_bench";
+    private static final String USER_ID = "bench-user";
+    private static final LocalDate START_DATE = LocalDate.of(2024, 1, 1);
+
+    @Param({"1", "10"})
+    public int prostheses;
+
+    @Param({"30", "365"})
+    public int days;
+
+    private RowBinaryReportRepository rowBinaryRepository;
+    private JdbcReportRepository jdbcRepository;
+    private LocalDate endDate;
+
+    @Setup
+    public void setup() throws Exception {
+        ClickHouseProperties properties = new ClickHouseProperties();
+        properties.setHost(System.getProperty("clickhouse.host", "localhost"));
+        properties.setHttpPort(Integer.getInteger("clickhouse.http-port", 8123));
+        properties.setUsername(System.getProperty("clickhouse.user", "default"));
+        properties.setPassword(System.getProperty("clickhouse.password", ""));
+        properties.setDatabase("default");
+        ClickHouseConfig clickHouseConfig = new ClickHouseConfig();
+        try (Connection connection = clickHouseConfig.clickHouseDataSource(properties).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE IF NOT EXISTS " + DATABASE);
+        }
+
+        properties.setDatabase(DATABASE);
+        DataSource dataSource = clickHouseConfig.clickHouseDataSource(properties);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS prosthesis_reports_mart");
+            statement.execute("CREATE TABLE prosthesis_reports_mart (" +
+                    "user_id String, user_email String, user_name String, prosthesis_id String, " +
+                    "prosthesis_model String, manufacture_date Date, report_date Date, usage_count UInt32, " +
+                    "total_usage_minutes UInt32, avg_battery_level Float32, commands_executed UInt32, " +
+                    "last_activity DateTime, data_period_start DateTime, data_period_end DateTime, " +
+                    "created_at DateTime DEFAULT now()" +
+                    ") ENGINE = ReplacingMergeTree(created_at) " +
+                    "PARTITION BY toYYYYMM(report_date) " +
+                    "ORDER BY (user_id, prosthesis_id, report_date)");
+            statement.execute(String.format(
+                    "INSERT INTO prosthesis_reports_mart (user_id, user_email, user_name, prosthesis_id, " +
+                    "prosthesis_model, manufacture_date, report_date, usage_count, total_usage_minutes, " +
+                    "avg_battery_level, commands_executed, last_activity, data_period_start, data_period_end) " +
+                    "SELECT '%1$s', '%1$s@example.com', 'Bench User', concat('prosthesis-', toString(intDiv(number, %2$d))), " +
+                    "'BionicArm X2', toDate('2023-06-01'), toDate('%3$s') + (number %% %2$d), " +
+                    "rand() %% 200, rand() %% 900, toFloat32(rand() %% 100), rand() %% 5000, " +
+                    "toDateTime(toDate('%3$s') + (number %% %2$d)) + 72000, " +
+                    "toDateTime(toDate('%3$s') + (number %% %2$d)), " +
+                    "toDateTime(toDate('%3$s') + (number %% %2$d)) + 86399 " +
+                    "FROM numbers(%4$d)",
+                    USER_ID, days, START_DATE, prostheses * days));
+            statement.execute("OPTIMIZE TABLE prosthesis_reports_mart FINAL");
+        }
+
+        jdbcRepository = new JdbcReportRepository(dataSource);
+        rowBinaryRepository = new RowBinaryReportRepository(properties);
+        endDate = START_DATE.plusDays(days - 1);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        rowBinaryRepository.close();
+    }
+
+    @Benchmark
+    public void jdbc(Blackhole blackhole) {
+        read(jdbcRepository, blackhole);
+    }
+
+    @Benchmark
+    public void rowBinary(Blackhole blackhole) {
+        read(rowBinaryRepository, blackhole);
+    }
+
+    private void read(ReportRepository repository, Blackhole blackhole) {
+        Consumer<ReportRow> consumer = row -> {
+            blackhole.consume(row.getProsthesisId());
+            blackhole.consume(row.getReportEpochDay());
+            blackhole.consume(row.getUsageCount());
+            blackhole.consume(row.getAvgBatteryLevel());
+            blackhole.consume(row.getLastActivityEpochSecond());
+        };
+        repository.streamRows(USER_ID, START_DATE, endDate, consumer);
+    }
+}
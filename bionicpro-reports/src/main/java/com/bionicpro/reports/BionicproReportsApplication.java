@@ -0,0 +1,11 @@
+package com.bionicpro.reports;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class BionicproReportsApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(BionicproReportsApplication.class, args);
+    }
+}
@@ -0,0 +1,123 @@
+package com.bionicpro.reports.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "auth")
+public class AuthProperties {
+    private String serviceUrl;
+    private Keycloak keycloak = new Keycloak();
+    private Jwt jwt = new Jwt();
+
+    public String getServiceUrl() {
+        return serviceUrl;
+    }
+
+    public void setServiceUrl(String serviceUrl) {
+        this.serviceUrl = serviceUrl;
+    }
+
+    public Keycloak getKeycloak() {
+        return keycloak;
+    }
+
+    public void setKeycloak(Keycloak keycloak) {
+        this.keycloak = keycloak;
+    }
+
+    public Jwt getJwt() {
+        return jwt;
+    }
+
+    public void setJwt(Jwt jwt) {
+        this.jwt = jwt;
+    }
+
+    public static class Keycloak {
+        private String url;
+        private String realm;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getRealm() {
+            return realm;
+        }
+
+        public void setRealm(String realm) {
+            this.realm = realm;
+        }
+    }
+
+    public static class Jwt {
+        private String issuer;
+        private long jwksRefreshIntervalSeconds = 300;
+        private long jwksMinRefreshIntervalSeconds = 10;
+        private long clockSkewSeconds = 30;
+        private int verifiedTokenCacheSize = 10_000;
+        private long connectTimeoutMs = 2000;
+        private long responseTimeoutMs = 5000;
+
+        public String getIssuer() {
+            return issuer;
+        }
+
+        public void setIssuer(String issuer) {
+            this.issuer = issuer;
+        }
+
+        public long getJwksRefreshIntervalSeconds() {
+            return jwksRefreshIntervalSeconds;
+        }
+
+        public void setJwksRefreshIntervalSeconds(long jwksRefreshIntervalSeconds) {
+            this.jwksRefreshIntervalSeconds = jwksRefreshIntervalSeconds;
+        }
+
+        public long getJwksMinRefreshIntervalSeconds() {
+            return jwksMinRefreshIntervalSeconds;
+        }
+
+        public void setJwksMinRefreshIntervalSeconds(long jwksMinRefreshIntervalSeconds) {
+            this.jwksMinRefreshIntervalSeconds = jwksMinRefreshIntervalSeconds;
+        }
+
+        public long getClockSkewSeconds() {
+            return clockSkewSeconds;
+        }
+
+        public void setClockSkewSeconds(long clockSkewSeconds) {
+            this.clockSkewSeconds = clockSkewSeconds;
+        }
+
+        public int getVerifiedTokenCacheSize() {
+            return verifiedTokenCacheSize;
+        }
+
+        public void setVerifiedTokenCacheSize(int verifiedTokenCacheSize) {
+            this.verifiedTokenCacheSize = verifiedTokenCacheSize;
+        }
+
+        public long getConnectTimeoutMs() {
+            return connectTimeoutMs;
+        }
+
+        public void setConnectTimeoutMs(long connectTimeoutMs) {
+            this.connectTimeoutMs = connectTimeoutMs;
+        }
+
+        public long getResponseTimeoutMs() {
+            return responseTimeoutMs;
+        }
+
+        public void setResponseTimeoutMs(long responseTimeoutMs) {
+            this.responseTimeoutMs = responseTimeoutMs;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.bionicpro.reports.config;
+
+import com.clickhouse.jdbc.ClickHouseDataSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Properties;
+
+@Configuration
+public class ClickHouseConfig {
+
+    @Bean
+    public DataSource clickHouseDataSource(ClickHouseProperties properties) throws SQLException {
+        Properties connectionProperties = new Properties();
+        connectionProperties.setProperty("user", properties.getUsername());
+        connectionProperties.setProperty("password", properties.getPassword());
+        connectionProperties.setProperty("socket_timeout", String.valueOf(properties.getSocketTimeoutMs()));
+        String url = "jdbc:clickhouse://" + properties.getHost() + ":" + properties.getHttpPort()
+                + "/" + properties.getDatabase();
+        return new ClickHouseDataSource(url, connectionProperties);
+    }
+}
@@ -0,0 +1,48 @@
+package com.bionicpro.reports.config;
+
+import com.bionicpro.reports.service.JwtVerifier;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+    private final JwtVerifier jwtVerifier;
+
+    public JwtAuthenticationFilter(JwtVerifier jwtVerifier) {
+        this.jwtVerifier = jwtVerifier;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            try {
+                String subject = jwtVerifier.verify(authorization.substring(BEARER_PREFIX.length())).getSubject();
+                if (subject != null) {
+                    SecurityContext context = SecurityContextHolder.createEmptyContext();
+                    context.setAuthentication(new UsernamePasswordAuthenticationToken(subject, null, List.of()));
+                    SecurityContextHolder.setContext(context);
+                }
+            } catch (RuntimeException e) {
+                // Left unauthenticated; protected endpoints answer 401
+                logger.debug("Rejected bearer token for {}: {}", request.getRequestURI(), e.getMessage());
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,99 @@
+package com.bionicpro.reports.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "reports.prewarm")
+public class PrewarmProperties {
+    private boolean enabled = true;
+    private int concurrency = 4;
+    private int batchSize = 100;
+    private int maxUsers = 10000;
+    private int activeDays = 7;
+    private double queriesPerSecond = 20;
+    private long maxDurationMinutes = 120;
+    private long pollIntervalSeconds = 300;
+    private long minIntervalSeconds = 3600;
+    private String token;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxUsers() {
+        return maxUsers;
+    }
+
+    public void setMaxUsers(int maxUsers) {
+        this.maxUsers = maxUsers;
+    }
+
+    public int getActiveDays() {
+        return activeDays;
+    }
+
+    public void setActiveDays(int activeDays) {
+        this.activeDays = activeDays;
+    }
+
+    public double getQueriesPerSecond() {
+        return queriesPerSecond;
+    }
+
+    public void setQueriesPerSecond(double queriesPerSecond) {
+        this.queriesPerSecond = queriesPerSecond;
+    }
+
+    public long getMaxDurationMinutes() {
+        return maxDurationMinutes;
+    }
+
+    public void setMaxDurationMinutes(long maxDurationMinutes) {
+        this.maxDurationMinutes = maxDurationMinutes;
+    }
+
+    public long getPollIntervalSeconds() {
+        return pollIntervalSeconds;
+    }
+
+    public void setPollIntervalSeconds(long pollIntervalSeconds) {
+        this.pollIntervalSeconds = pollIntervalSeconds;
+    }
+
+    public long getMinIntervalSeconds() {
+        return minIntervalSeconds;
+    }
+
+    public void setMinIntervalSeconds(long minIntervalSeconds) {
+        this.minIntervalSeconds = minIntervalSeconds;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
@@ -0,0 +1,44 @@
+package com.bionicpro.reports.config;
+
+import io.minio.MinioAsyncClient;
+import io.minio.MinioClient;
+import io.minio.http.HttpUtils;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class S3Config {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    @Bean
+    public MinioClient minioClient(S3Properties properties) {
+        return MinioClient.builder()
+                .endpoint(properties.getEndpoint())
+                .credentials(properties.getAccessKey(), properties.getSecretKey())
+                .region(properties.getRegion())
+                .build();
+    }
+
+    @Bean
+    public S3MultipartClient s3MultipartClient(S3Properties properties) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(Math.max(64, properties.getMultipart().getMaxBuffers()));
+        dispatcher.setMaxRequestsPerHost(properties.getMultipart().getMaxBuffers());
+        OkHttpClient httpClient = HttpUtils.newDefaultHttpClient(TIMEOUT_MILLIS, TIMEOUT_MILLIS, TIMEOUT_MILLIS)
+                .newBuilder()
+                .dispatcher(dispatcher)
+                .build();
+
+        return new S3MultipartClient(MinioAsyncClient.builder()
+                .endpoint(properties.getEndpoint())
+                .credentials(properties.getAccessKey(), properties.getSecretKey())
+                .region(properties.getRegion())
+                .httpClient(httpClient)
+                .build());
+    }
+}
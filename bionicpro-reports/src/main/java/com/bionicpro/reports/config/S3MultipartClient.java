@@ -0,0 +1,34 @@
+package com.bionicpro.reports.config;
+
+import com.google.common.collect.Multimap;
+import io.minio.MinioAsyncClient;
+import io.minio.messages.Part;
+
+import java.util.concurrent.CompletableFuture;
+
+public class S3MultipartClient extends MinioAsyncClient {
+
+    public S3MultipartClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    public String createUpload(String bucket, String region, String objectKey, Multimap<String, String> headers)
+            throws Exception {
+        return createMultipartUploadAsync(bucket, region, objectKey, headers, null).get().result().uploadId();
+    }
+
+    public CompletableFuture<Part> uploadPart(String bucket, String region, String objectKey, String uploadId,
+                                              int partNumber, byte[] data, int length) throws Exception {
+        return uploadPartAsync(bucket, region, objectKey, data, length, uploadId, partNumber, null, null)
+                .thenApply(response -> new Part(partNumber, response.etag()));
+    }
+
+    public void completeUpload(String bucket, String region, String objectKey, String uploadId, Part[] parts)
+            throws Exception {
+        completeMultipartUploadAsync(bucket, region, objectKey, uploadId, parts, null, null).get();
+    }
+
+    public void abortUpload(String bucket, String region, String objectKey, String uploadId) throws Exception {
+        abortMultipartUploadAsync(bucket, region, objectKey, uploadId, null, null).get();
+    }
+}
@@ -0,0 +1,93 @@
+package com.bionicpro.reports.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "s3")
+public class S3Properties {
+    private String endpoint;
+    private String accessKey;
+    private String secretKey;
+    private String bucket;
+    private String region;
+    private Multipart multipart = new Multipart();
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getAccessKey() {
+        return accessKey;
+    }
+
+    public void setAccessKey(String accessKey) {
+        this.accessKey = accessKey;
+    }
+
+    public String getSecretKey() {
+        return secretKey;
+    }
+
+    public void setSecretKey(String secretKey) {
+        this.secretKey = secretKey;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public void setBucket(String bucket) {
+        this.bucket = bucket;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public Multipart getMultipart() {
+        return multipart;
+    }
+
+    public void setMultipart(Multipart multipart) {
+        this.multipart = multipart;
+    }
+
+    public static class Multipart {
+        private int partSizeBytes = 8 * 1024 * 1024;
+        private int parallelism = 3;
+        private int maxBuffers = 8;
+
+        public int getPartSizeBytes() {
+            return partSizeBytes;
+        }
+
+        public void setPartSizeBytes(int partSizeBytes) {
+            this.partSizeBytes = partSizeBytes;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getMaxBuffers() {
+            return maxBuffers;
+        }
+
+        public void setMaxBuffers(int maxBuffers) {
+            this.maxBuffers = maxBuffers;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.bionicpro.reports.controller;
+
+import com.bionicpro.reports.model.IntradayUsage;
+import com.bionicpro.reports.model.ReportObject;
+import com.bionicpro.reports.service.IntradayUsageRepository;
+import com.bionicpro.reports.service.ReportCompression;
+import com.bionicpro.reports.service.ReportKeyIndex;
+import com.bionicpro.reports.service.ReportPrewarmer;
+import com.bionicpro.reports.service.ReportService;
+import com.bionicpro.reports.service.S3Service;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
+    private static final String FILES_PATH = "/api/reports/files/";
+    private static final String PREWARM_TOKEN_HEADER = "X-Prewarm-Token";
+    private static final String CDN_TOKEN_HEADER = "X-Cdn-Token";
+    private final ReportService reportService;
+    private final S3Service s3Service;
+    private final ReportKeyIndex reportKeyIndex;
+    private final ReportPrewarmer reportPrewarmer;
+    private final IntradayUsageRepository intradayUsageRepository;
+    private final String cdnPublicUrl;
+    private final String cdnOriginToken;
+
+    public ReportController(
+            ReportService reportService,
+            S3Service s3Service,
+            ReportKeyIndex reportKeyIndex,
+            ReportPrewarmer reportPrewarmer,
+            IntradayUsageRepository intradayUsageRepository,
+            @Value("${cdn.public-url:http://localhost:8083}") String cdnPublicUrl,
+            @Value("${cdn.origin-token:}") String cdnOriginToken) {
+        this.reportService = reportService;
+        this.s3Service = s3Service;
+        this.reportKeyIndex = reportKeyIndex;
+        this.reportPrewarmer = reportPrewarmer;
+        this.intradayUsageRepository = intradayUsageRepository;
+        this.cdnPublicUrl = cdnPublicUrl.endsWith("/")
+                ? cdnPublicUrl.substring(0, cdnPublicUrl.length() - 1)
+                : cdnPublicUrl;
+        this.cdnOriginToken = cdnOriginToken;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, String>> getReport(
+            Authentication authentication,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        String userId = authentication.getName();
+        LocalDate end = endDate != null ? endDate : LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        LocalDate start = startDate != null ? startDate : end.minusDays(reportService.getDefaultRangeDays() - 1);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String reportKey = reportService.getOrGenerateReportKey(userId, start, end);
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("userId", userId);
+        body.put("startDate", start.toString());
+        body.put("endDate", end.toString());
+        body.put("reportUrl", cdnPublicUrl + "/" + reportKey);
+        body.put("message", "Report is available at the provided URL");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(body);
+    }
+
+    @GetMapping("/intraday")
+    public ResponseEntity<Map<String, Object>> getIntradayUsage(Authentication authentication) {
+        String userId = authentication.getName();
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<IntradayUsage> usage = intradayUsageRepository.findForUser(userId, today);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(Map.of("userId", userId, "date", today.toString(), "prostheses", usage));
+    }
+
+    @PostMapping("/prewarm")
+    public ResponseEntity<Map<String, String>> prewarm(
+            @RequestHeader(value = PREWARM_TOKEN_HEADER, required = false) String token) {
+        if (!reportPrewarmer.acceptsToken(token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!reportPrewarmer.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("status", "disabled"));
+        }
+        if (!reportPrewarmer.trigger()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("status", "running"));
+        }
+        return ResponseEntity.accepted().body(Map.of("status", "started"));
+    }
+
+    @GetMapping("/files/**")
+    public ResponseEntity<InputStreamResource> getReportFile(
+            HttpServletRequest request,
+            Authentication authentication,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = CDN_TOKEN_HEADER, required = false) String cdnToken)
+            throws IOException {
+        String objectKey = request.getRequestURI().substring(request.getContextPath().length() + FILES_PATH.length());
+        if (!objectKey.startsWith("reports/") || objectKey.contains("..")) {
+            return ResponseEntity.notFound().build();
+        }
+        // nginx-cdn proxies with the origin token; anyone else may only read their own reports
+        if (!isCdnOrigin(cdnToken)) {
+            if (authentication == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            int userEnd = objectKey.indexOf('/', "reports/".length());
+            if (userEnd < 0 || !objectKey.substring("reports/".length(), userEnd).equals(authentication.getName())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+        }
+
+        ReportObject object = s3Service.getObject(objectKey);
+        if (object == null) {
+            reportKeyIndex.remove(objectKey);
+            return ResponseEntity.notFound().build();
+        }
+
+        ReportCompression compression = ReportCompression.fromContentEncoding(object.getContentEncoding());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(object.getContentType() == null
+                        ? MediaType.APPLICATION_JSON
+                        : MediaType.parseMediaType(object.getContentType()));
+
+        InputStream body = object.getContent();
+        if (compression.isAcceptedBy(acceptEncoding)) {
+            if (compression.getContentEncoding() != null) {
+                response.header(HttpHeaders.CONTENT_ENCODING, compression.getContentEncoding());
+            }
+            if (object.getSize() >= 0) {
+                response.contentLength(object.getSize());
+            }
+        } else {
+            logger.debug("Decompressing {} for client without {} support", objectKey, compression.getContentEncoding());
+            body = compression.decompress(body);
+        }
+        return response.body(new InputStreamResource(body));
+    }
+
+    private boolean isCdnOrigin(String token) {
+        if (cdnOriginToken.isEmpty() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(cdnOriginToken.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package com.bionicpro.reports.model;
+
+public class IntradayUsage {
+    private String prosthesisId;
+    private String prosthesisModel;
+    private String reportDate;
+    private long usageCount;
+    private long totalUsageMinutes;
+    private double avgBatteryLevel;
+    private long commandsExecuted;
+    private String firstActivity;
+    private String lastActivity;
+
+    public String getProsthesisId() {
+        return prosthesisId;
+    }
+
+    public void setProsthesisId(String prosthesisId) {
+        this.prosthesisId = prosthesisId;
+    }
+
+    public String getProsthesisModel() {
+        return prosthesisModel;
+    }
+
+    public void setProsthesisModel(String prosthesisModel) {
+        this.prosthesisModel = prosthesisModel;
+    }
+
+    public String getReportDate() {
+        return reportDate;
+    }
+
+    public void setReportDate(String reportDate) {
+        this.reportDate = reportDate;
+    }
+
+    public long getUsageCount() {
+        return usageCount;
+    }
+
+    public void setUsageCount(long usageCount) {
+        this.usageCount = usageCount;
+    }
+
+    public long getTotalUsageMinutes() {
+        return totalUsageMinutes;
+    }
+
+    public void setTotalUsageMinutes(long totalUsageMinutes) {
+        this.totalUsageMinutes = totalUsageMinutes;
+    }
+
+    public double getAvgBatteryLevel() {
+        return avgBatteryLevel;
+    }
+
+    public void setAvgBatteryLevel(double avgBatteryLevel) {
+        this.avgBatteryLevel = avgBatteryLevel;
+    }
+
+    public long getCommandsExecuted() {
+        return commandsExecuted;
+    }
+
+    public void setCommandsExecuted(long commandsExecuted) {
+        this.commandsExecuted = commandsExecuted;
+    }
+
+    public String getFirstActivity() {
+        return firstActivity;
+    }
+
+    public void setFirstActivity(String firstActivity) {
+        this.firstActivity = firstActivity;
+    }
+
+    public String getLastActivity() {
+        return lastActivity;
+    }
+
+    public void setLastActivity(String lastActivity) {
+        this.lastActivity = lastActivity;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bionicpro.reports.model;
+
+import java.io.InputStream;
+
+public class ReportObject {
+    private final InputStream content;
+    private final String contentType;
+    private final String contentEncoding;
+    private final long size;
+
+    public ReportObject(InputStream content, String contentType, String contentEncoding, long size) {
+        this.content = content;
+        this.contentType = contentType;
+        this.contentEncoding = contentEncoding;
+        this.size = size;
+    }
+
+    public InputStream getContent() {
+        return content;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
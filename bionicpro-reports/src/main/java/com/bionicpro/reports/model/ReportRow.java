@@ -0,0 +1,130 @@
+package com.bionicpro.reports.model;
+
+public class ReportRow {
+    private String userId;
+    private String userEmail;
+    private String userName;
+    private String prosthesisId;
+    private String prosthesisModel;
+    private int manufactureEpochDay;
+    private int reportEpochDay;
+    private long usageCount;
+    private long totalUsageMinutes;
+    private float avgBatteryLevel;
+    private long commandsExecuted;
+    private long lastActivityEpochSecond;
+    private long dataPeriodStartEpochSecond;
+    private long dataPeriodEndEpochSecond;
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getProsthesisId() {
+        return prosthesisId;
+    }
+
+    public void setProsthesisId(String prosthesisId) {
+        this.prosthesisId = prosthesisId;
+    }
+
+    public String getProsthesisModel() {
+        return prosthesisModel;
+    }
+
+    public void setProsthesisModel(String prosthesisModel) {
+        this.prosthesisModel = prosthesisModel;
+    }
+
+    public int getManufactureEpochDay() {
+        return manufactureEpochDay;
+    }
+
+    public void setManufactureEpochDay(int manufactureEpochDay) {
+        this.manufactureEpochDay = manufactureEpochDay;
+    }
+
+    public int getReportEpochDay() {
+        return reportEpochDay;
+    }
+
+    public void setReportEpochDay(int reportEpochDay) {
+        this.reportEpochDay = reportEpochDay;
+    }
+
+    public long getUsageCount() {
+        return usageCount;
+    }
+
+    public void setUsageCount(long usageCount) {
+        this.usageCount = usageCount;
+    }
+
+    public long getTotalUsageMinutes() {
+        return totalUsageMinutes;
+    }
+
+    public void setTotalUsageMinutes(long totalUsageMinutes) {
+        this.totalUsageMinutes = totalUsageMinutes;
+    }
+
+    public float getAvgBatteryLevel() {
+        return avgBatteryLevel;
+    }
+
+    public void setAvgBatteryLevel(float avgBatteryLevel) {
+        this.avgBatteryLevel = avgBatteryLevel;
+    }
+
+    public long getCommandsExecuted() {
+        return commandsExecuted;
+    }
+
+    public void setCommandsExecuted(long commandsExecuted) {
+        this.commandsExecuted = commandsExecuted;
+    }
+
+    public long getLastActivityEpochSecond() {
+        return lastActivityEpochSecond;
+    }
+
+    public void setLastActivityEpochSecond(long lastActivityEpochSecond) {
+        this.lastActivityEpochSecond = lastActivityEpochSecond;
+    }
+
+    public long getDataPeriodStartEpochSecond() {
+        return dataPeriodStartEpochSecond;
+    }
+
+    public void setDataPeriodStartEpochSecond(long dataPeriodStartEpochSecond) {
+        this.dataPeriodStartEpochSecond = dataPeriodStartEpochSecond;
+    }
+
+    public long getDataPeriodEndEpochSecond() {
+        return dataPeriodEndEpochSecond;
+    }
+
+    public void setDataPeriodEndEpochSecond(long dataPeriodEndEpochSecond) {
+        this.dataPeriodEndEpochSecond = dataPeriodEndEpochSecond;
+    }
+}
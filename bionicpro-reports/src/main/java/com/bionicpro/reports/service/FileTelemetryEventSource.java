@@ -0,0 +1,83 @@
+package com.bionicpro.reports.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+final class FileTelemetryEventSource implements TelemetryEventSource {
+
+    private final Path path;
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    private long position;
+    private boolean paused;
+
+    FileTelemetryEventSource(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public void poll(Duration timeout, EventConsumer consumer) {
+        boolean read = false;
+        if (!paused && Files.exists(path)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() < position) {
+                    position = 0;
+                    line.reset();
+                }
+                channel.position(position);
+                int bytes;
+                while ((bytes = channel.read(buffer)) > 0) {
+                    read = true;
+                    long bufferStart = position;
+                    position += bytes;
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        byte b = buffer.get();
+                        if (b == '\n') {
+                            if (line.size() > 0) {
+                                consumer.accept(0, bufferStart + buffer.position() - 1, line.toByteArray());
+                                line.reset();
+                            }
+                        } else {
+                            line.write(b);
+                        }
+                    }
+                    buffer.clear();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read telemetry events from " + path, e);
+            }
+        }
+        if (!read) {
+            try {
+                Thread.sleep(timeout.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void commit() {
+    }
+
+    @Override
+    public void pause() {
+        paused = true;
+    }
+
+    @Override
+    public void resume() {
+        paused = false;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,181 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.config.IntradayProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class IntradayAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntradayAggregator.class);
+    private final IntradayUsageRepository intradayUsageRepository;
+    private final IntradayProperties properties;
+    private final TelemetryEventParser parser = new TelemetryEventParser();
+    private final Map<Integer, IntradayPartition> partitions = new HashMap<>();
+    private TelemetryEventSource source;
+    private String sourceName;
+    private boolean writeFailed;
+    private Thread worker;
+    private volatile boolean running;
+    private long events;
+    private long skipped;
+
+    public IntradayAggregator(IntradayUsageRepository intradayUsageRepository, IntradayProperties properties) {
+        this.intradayUsageRepository = intradayUsageRepository;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        switch (properties.getSource()) {
+            case "kafka" -> {
+                sourceName = properties.getKafka().getTopic();
+                source = new KafkaTelemetryEventSource(properties.getKafka(), this::revoke,
+                        () -> intradayUsageRepository.findWrittenOffsets(sourceName));
+            }
+            case "file" -> {
+                sourceName = "file:" + properties.getFile().getPath();
+                source = new FileTelemetryEventSource(Path.of(properties.getFile().getPath()));
+            }
+            default -> throw new IllegalStateException("Unknown intraday telemetry source " + properties.getSource());
+        }
+        running = true;
+        worker = new Thread(this::run, "intraday-aggregator");
+        worker.setDaemon(true);
+        worker.start();
+        logger.info("Intraday aggregation started from {} source, flushing every {} ms", properties.getSource(),
+                properties.getFlushIntervalMs());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.join(properties.getPollTimeoutMs() + properties.getFlushIntervalMs());
+    }
+
+    private void run() {
+        Duration pollTimeout = Duration.ofMillis(properties.getPollTimeoutMs());
+        long nextFlush = System.currentTimeMillis() + properties.getFlushIntervalMs();
+        try {
+            while (running) {
+                try {
+                    int minEpochDay = (int) LocalDate.now(ZoneOffset.UTC).toEpochDay() - 1;
+                    source.poll(pollTimeout,
+                            (partition, offset, value) -> accept(partition, offset, value, minEpochDay));
+                    if (System.currentTimeMillis() >= nextFlush) {
+                        nextFlush = System.currentTimeMillis() + properties.getFlushIntervalMs();
+                        flush();
+                    }
+                } catch (Exception e) {
+                    logger.warn("Intraday aggregation failed, keeping {} pending aggregates", pendingAggregates(), e);
+                }
+            }
+            flush();
+        } catch (Exception e) {
+            logger.warn("Failed to flush intraday aggregates on shutdown", e);
+        } finally {
+            source.close();
+        }
+    }
+
+    private void accept(int partition, long offset, byte[] value, int minEpochDay) {
+        IntradayPartition aggregates = partitions.get(partition);
+        if (aggregates == null) {
+            aggregates = new IntradayPartition(partition, properties.getInitialCapacity());
+            partitions.put(partition, aggregates);
+        }
+        aggregates.setLastOffset(offset);
+        try {
+            if (parser.parse(value, minEpochDay, aggregates.getTable())) {
+                events++;
+            } else {
+                skipped++;
+            }
+        } catch (IllegalArgumentException e) {
+            skipped++;
+            logger.debug("Skipping malformed telemetry event", e);
+        }
+    }
+
+    private void flush() {
+        if (writeFailed) {
+            dropWrittenPartitions();
+        }
+        int aggregates = pendingAggregates();
+        if (aggregates > 0) {
+            try {
+                intradayUsageRepository.write(sourceName, partitions.values(), properties.getMinutesPerEvent());
+            } catch (RuntimeException e) {
+                if (!writeFailed) {
+                    // The insert may still have landed: stop consuming until its offsets are checked
+                    writeFailed = true;
+                    source.pause();
+                }
+                throw e;
+            }
+            for (IntradayPartition partition : partitions.values()) {
+                partition.getTable().clear();
+            }
+            logger.debug("Flushed {} intraday aggregates ({} events, {} skipped)", aggregates, events, skipped);
+            events = 0;
+            skipped = 0;
+        }
+        if (writeFailed) {
+            writeFailed = false;
+            source.resume();
+        }
+        source.commit();
+    }
+
+    private void dropWrittenPartitions() {
+        Map<Integer, Long> written = intradayUsageRepository.findWrittenOffsets(sourceName);
+        for (IntradayPartition partition : partitions.values()) {
+            Long lastWritten = written.get(partition.getPartition());
+            if (partition.getTable().size() > 0 && lastWritten != null && lastWritten >= partition.getLastOffset()) {
+                logger.debug("Intraday aggregates of partition {} up to offset {} are already written",
+                        partition.getPartition(), partition.getLastOffset());
+                partition.getTable().clear();
+            }
+        }
+    }
+
+    private void revoke(Collection<Integer> revoked) {
+        try {
+            flush();
+        } catch (Exception e) {
+            // The next owner resumes after the offsets written to ClickHouse, so these events are not lost
+            logger.warn("Failed to flush intraday aggregates before rebalance, dropping those of partitions {}",
+                    revoked, e);
+        }
+        revoked.forEach(partitions::remove);
+        if (writeFailed && pendingAggregates() == 0) {
+            writeFailed = false;
+            source.resume();
+        }
+    }
+
+    private int pendingAggregates() {
+        int aggregates = 0;
+        for (IntradayPartition partition : partitions.values()) {
+            aggregates += partition.getTable().size();
+        }
+        return aggregates;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bionicpro.reports.service;
+
+final class IntradayPartition {
+
+    private final int partition;
+    private final IntradayUsageTable table;
+    private long lastOffset = -1;
+
+    IntradayPartition(int partition, int initialCapacity) {
+        this.partition = partition;
+        this.table = new IntradayUsageTable(initialCapacity);
+    }
+
+    int getPartition() {
+        return partition;
+    }
+
+    IntradayUsageTable getTable() {
+        return table;
+    }
+
+    long getLastOffset() {
+        return lastOffset;
+    }
+
+    void setLastOffset(long lastOffset) {
+        this.lastOffset = lastOffset;
+    }
+}
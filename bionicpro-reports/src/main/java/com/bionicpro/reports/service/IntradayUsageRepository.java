@@ -0,0 +1,125 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.model.IntradayUsage;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class IntradayUsageRepository {
+
+    static final String INSERT_QUERY =
+            "INSERT INTO prosthesis_usage_intraday (prosthesis_id, report_date, source, source_partition, " +
+            "last_offset, usage_count, total_usage_minutes, battery_sum, battery_count, commands_executed, " +
+            "first_activity, last_activity) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String WRITTEN_OFFSETS_QUERY =
+            "SELECT source_partition, max(last_offset) FROM prosthesis_usage_intraday " +
+            "WHERE source = ? " +
+            "GROUP BY source_partition";
+    static final String USER_QUERY =
+            "SELECT t.prosthesis_id, any(crm.prosthesis_model), sum(t.usage_count), sum(t.total_usage_minutes), " +
+            "if(sum(t.battery_count) = 0, 0, sum(t.battery_sum) / sum(t.battery_count)), " +
+            "sum(t.commands_executed), min(t.first_activity), max(t.last_activity) " +
+            "FROM prosthesis_usage_intraday AS t " +
+            "INNER JOIN (SELECT prosthesis_id, prosthesis_model FROM crm_data_mart FINAL WHERE user_id = ?) AS crm " +
+            "ON t.prosthesis_id = crm.prosthesis_id " +
+            "WHERE t.report_date = ? " +
+            "GROUP BY t.prosthesis_id " +
+            "ORDER BY t.prosthesis_id";
+    private final DataSource dataSource;
+
+    public IntradayUsageRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    void write(String source, Collection<IntradayPartition> partitions, int minutesPerEvent) {
+        // One INSERT is one block of an unpartitioned table, so the aggregates and their offsets land together
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_QUERY)) {
+            for (IntradayPartition partition : partitions) {
+                partition.getTable().forEach((msb, lsb, epochDay, usageCount, batterySum, batteryCount,
+                                              commandsExecuted, firstActivity, lastActivity) -> {
+                    try {
+                        statement.setString(1, new UUID(msb, lsb).toString());
+                        statement.setObject(2, LocalDate.ofEpochDay(epochDay));
+                        statement.setString(3, source);
+                        statement.setInt(4, partition.getPartition());
+                        statement.setLong(5, partition.getLastOffset());
+                        statement.setLong(6, usageCount);
+                        statement.setLong(7, usageCount * minutesPerEvent);
+                        statement.setDouble(8, batterySum);
+                        statement.setLong(9, batteryCount);
+                        statement.setLong(10, commandsExecuted);
+                        statement.setObject(11, LocalDateTime.ofEpochSecond(firstActivity, 0, ZoneOffset.UTC));
+                        statement.setObject(12, LocalDateTime.ofEpochSecond(lastActivity, 0, ZoneOffset.UTC));
+                        statement.addBatch();
+                    } catch (SQLException e) {
+                        throw new RuntimeException("Failed to write intraday usage", e);
+                    }
+                });
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to write intraday usage", e);
+        }
+    }
+
+    Map<Integer, Long> findWrittenOffsets(String source) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(WRITTEN_OFFSETS_QUERY)) {
+            statement.setString(1, source);
+
+            Map<Integer, Long> offsets = new HashMap<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    offsets.put(resultSet.getInt(1), resultSet.getLong(2));
+                }
+            }
+            return offsets;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to query written intraday offsets", e);
+        }
+    }
+
+    public List<IntradayUsage> findForUser(String userId, LocalDate date) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(USER_QUERY)) {
+            statement.setString(1, userId);
+            statement.setObject(2, date);
+
+            List<IntradayUsage> usage = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    IntradayUsage row = new IntradayUsage();
+                    row.setProsthesisId(resultSet.getString(1));
+                    row.setProsthesisModel(resultSet.getString(2));
+                    row.setReportDate(date.toString());
+                    row.setUsageCount(resultSet.getLong(3));
+                    row.setTotalUsageMinutes(resultSet.getLong(4));
+                    row.setAvgBatteryLevel(resultSet.getDouble(5));
+                    row.setCommandsExecuted(resultSet.getLong(6));
+                    row.setFirstActivity(resultSet.getObject(7, LocalDateTime.class).toString());
+                    row.setLastActivity(resultSet.getObject(8, LocalDateTime.class).toString());
+                    usage.add(row);
+                }
+            }
+            return usage;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to query intraday usage", e);
+        }
+    }
+}
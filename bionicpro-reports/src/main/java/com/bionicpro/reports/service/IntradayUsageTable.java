@@ -0,0 +1,131 @@
+package com.bionicpro.reports.service;
+
+import java.util.Arrays;
+
+final class IntradayUsageTable {
+
+    interface Visitor {
+        void visit(long prosthesisMsb, long prosthesisLsb, int epochDay, long usageCount, double batterySum,
+                   long batteryCount, long commandsExecuted, long firstActivityEpochSecond,
+                   long lastActivityEpochSecond);
+    }
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private long[] prosthesisMsb;
+    private long[] prosthesisLsb;
+    private int[] epochDay;
+    private long[] usageCount;
+    private double[] batterySum;
+    private long[] batteryCount;
+    private long[] commandsExecuted;
+    private long[] firstActivity;
+    private long[] lastActivity;
+    private int size;
+    private int resizeAt;
+
+    IntradayUsageTable(int initialCapacity) {
+        allocate(Integer.highestOneBit(Math.max(16, initialCapacity - 1) << 1));
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(long msb, long lsb, int day, long epochSecond, double batteryLevel, boolean hasCommands) {
+        int slot = slot(msb, lsb, day);
+        if (epochDay[slot] == EMPTY) {
+            prosthesisMsb[slot] = msb;
+            prosthesisLsb[slot] = lsb;
+            epochDay[slot] = day;
+            firstActivity[slot] = epochSecond;
+            lastActivity[slot] = epochSecond;
+            if (++size > resizeAt) {
+                resize();
+                slot = slot(msb, lsb, day);
+            }
+        }
+        usageCount[slot]++;
+        if (!Double.isNaN(batteryLevel) && batteryLevel != 0) {
+            batterySum[slot] += batteryLevel;
+            batteryCount[slot]++;
+        }
+        if (hasCommands) {
+            commandsExecuted[slot]++;
+        }
+        firstActivity[slot] = Math.min(firstActivity[slot], epochSecond);
+        lastActivity[slot] = Math.max(lastActivity[slot], epochSecond);
+    }
+
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < epochDay.length; i++) {
+            if (epochDay[i] != EMPTY) {
+                visitor.visit(prosthesisMsb[i], prosthesisLsb[i], epochDay[i], usageCount[i], batterySum[i],
+                        batteryCount[i], commandsExecuted[i], firstActivity[i], lastActivity[i]);
+            }
+        }
+    }
+
+    void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(epochDay, EMPTY);
+        Arrays.fill(usageCount, 0);
+        Arrays.fill(batterySum, 0);
+        Arrays.fill(batteryCount, 0);
+        Arrays.fill(commandsExecuted, 0);
+        size = 0;
+    }
+
+    private int slot(long msb, long lsb, int day) {
+        int mask = epochDay.length - 1;
+        long hash = (msb * 0x9E3779B97F4A7C15L) ^ (lsb * 0xC2B2AE3D27D4EB4FL) ^ day;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (epochDay[slot] != EMPTY
+                && (epochDay[slot] != day || prosthesisMsb[slot] != msb || prosthesisLsb[slot] != lsb)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        long[] oldMsb = prosthesisMsb;
+        long[] oldLsb = prosthesisLsb;
+        int[] oldDay = epochDay;
+        long[] oldUsage = usageCount;
+        double[] oldBatterySum = batterySum;
+        long[] oldBatteryCount = batteryCount;
+        long[] oldCommands = commandsExecuted;
+        long[] oldFirst = firstActivity;
+        long[] oldLast = lastActivity;
+        allocate(oldDay.length << 1);
+        for (int i = 0; i < oldDay.length; i++) {
+            if (oldDay[i] != EMPTY) {
+                int slot = slot(oldMsb[i], oldLsb[i], oldDay[i]);
+                prosthesisMsb[slot] = oldMsb[i];
+                prosthesisLsb[slot] = oldLsb[i];
+                epochDay[slot] = oldDay[i];
+                usageCount[slot] = oldUsage[i];
+                batterySum[slot] = oldBatterySum[i];
+                batteryCount[slot] = oldBatteryCount[i];
+                commandsExecuted[slot] = oldCommands[i];
+                firstActivity[slot] = oldFirst[i];
+                lastActivity[slot] = oldLast[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        prosthesisMsb = new long[capacity];
+        prosthesisLsb = new long[capacity];
+        epochDay = new int[capacity];
+        Arrays.fill(epochDay, EMPTY);
+        usageCount = new long[capacity];
+        batterySum = new double[capacity];
+        batteryCount = new long[capacity];
+        commandsExecuted = new long[capacity];
+        firstActivity = new long[capacity];
+        lastActivity = new long[capacity];
+        resizeAt = capacity * 3 / 4;
+    }
+}
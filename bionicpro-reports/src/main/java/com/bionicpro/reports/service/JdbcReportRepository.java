@@ -0,0 +1,68 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.model.ReportRow;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "clickhouse.read-path", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcReportRepository implements ReportRepository {
+
+    private static final Map<ReportGranularity, String> QUERIES = new EnumMap<>(ReportGranularity.class);
+
+    static {
+        for (ReportGranularity granularity : ReportGranularity.values()) {
+            QUERIES.put(granularity, granularity.query("?", "?", "?"));
+        }
+    }
+
+    private final DataSource dataSource;
+
+    public JdbcReportRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void streamRows(String userId, ReportGranularity granularity, LocalDate startDate, LocalDate endDate,
+                           Consumer<ReportRow> consumer) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(QUERIES.get(granularity))) {
+            statement.setString(1, userId);
+            statement.setObject(2, startDate);
+            statement.setObject(3, endDate);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                ReportRow row = new ReportRow();
+                while (resultSet.next()) {
+                    row.setUserId(resultSet.getString(1));
+                    row.setUserEmail(resultSet.getString(2));
+                    row.setUserName(resultSet.getString(3));
+                    row.setProsthesisId(resultSet.getString(4));
+                    row.setProsthesisModel(resultSet.getString(5));
+                    row.setManufactureEpochDay((int) resultSet.getObject(6, LocalDate.class).toEpochDay());
+                    row.setReportEpochDay((int) resultSet.getObject(7, LocalDate.class).toEpochDay());
+                    row.setUsageCount(resultSet.getLong(8));
+                    row.setTotalUsageMinutes(resultSet.getLong(9));
+                    row.setAvgBatteryLevel(resultSet.getFloat(10));
+                    row.setCommandsExecuted(resultSet.getLong(11));
+                    row.setLastActivityEpochSecond(resultSet.getTimestamp(12).getTime() / 1000);
+                    row.setDataPeriodStartEpochSecond(resultSet.getTimestamp(13).getTime() / 1000);
+                    row.setDataPeriodEndEpochSecond(resultSet.getTimestamp(14).getTime() / 1000);
+                    consumer.accept(row);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to query report data", e);
+        }
+    }
+}
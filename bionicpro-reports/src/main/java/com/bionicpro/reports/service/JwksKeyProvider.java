@@ -0,0 +1,135 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.config.AuthProperties;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.AsymmetricJwk;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class JwksKeyProvider extends LocatorAdapter<Key> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwksKeyProvider.class);
+    private final CloseableHttpClient httpClient;
+    private final String jwksUrl;
+    private final long refreshIntervalSeconds;
+    private final long minRefreshIntervalMillis;
+    private volatile Map<String, Key> keys = Map.of();
+    private long lastRefreshAttempt;
+    private ScheduledExecutorService refresher;
+
+    public JwksKeyProvider(AuthProperties authProperties) {
+        AuthProperties.Keycloak keycloak = authProperties.getKeycloak();
+        AuthProperties.Jwt jwt = authProperties.getJwt();
+        this.jwksUrl = keycloak.getUrl() + "/realms/" + keycloak.getRealm() + "/protocol/openid-connect/certs";
+        this.refreshIntervalSeconds = jwt.getJwksRefreshIntervalSeconds();
+        this.minRefreshIntervalMillis = TimeUnit.SECONDS.toMillis(jwt.getJwksMinRefreshIntervalSeconds());
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(jwt.getConnectTimeoutMs()))
+                                .setSocketTimeout(Timeout.ofMilliseconds(jwt.getResponseTimeoutMs()))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(jwt.getResponseTimeoutMs()))
+                        .build())
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        refresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, refreshIntervalSeconds, refreshIntervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+        httpClient.close();
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            throw new JwtException("Token has no key id");
+        }
+        Key key = keys.get(kid);
+        if (key == null) {
+            refreshOnUnknownKey(kid);
+            key = keys.get(kid);
+        }
+        if (key == null) {
+            throw new JwtException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    public synchronized void refresh() {
+        lastRefreshAttempt = System.currentTimeMillis();
+        try {
+            String json = httpClient.execute(new HttpGet(jwksUrl), response -> {
+                if (response.getCode() != 200) {
+                    throw new IOException("JWKS request failed with status " + response.getCode());
+                }
+                return EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            });
+            JwkSet jwkSet = Jwks.setParser().build().parse(json);
+
+            Map<String, Key> loaded = new HashMap<>();
+            for (Jwk<?> jwk : jwkSet.getKeys()) {
+                if (jwk.getId() == null || (jwk instanceof AsymmetricJwk<?> asymmetric
+                        && "enc".equals(asymmetric.getPublicKeyUse()))) {
+                    continue;
+                }
+                loaded.put(jwk.getId(), jwk.toKey());
+            }
+            keys = Map.copyOf(loaded);
+            logger.debug("Loaded {} signing keys from {}", loaded.size(), jwksUrl);
+        } catch (Exception e) {
+            logger.warn("Failed to refresh JWKS from {}, keeping {} cached keys", jwksUrl, keys.size(), e);
+        }
+    }
+
+    private synchronized void refreshOnUnknownKey(String kid) {
+        if (keys.containsKey(kid) || System.currentTimeMillis() - lastRefreshAttempt < minRefreshIntervalMillis) {
+            return;
+        }
+        logger.debug("Unknown key id {}, refreshing JWKS", kid);
+        refresh();
+    }
+}
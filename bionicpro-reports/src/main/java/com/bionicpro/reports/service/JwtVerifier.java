@@ -0,0 +1,81 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.config.AuthProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class JwtVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtVerifier.class);
+    private final JwtParser jwtParser;
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtVerifier(AuthProperties authProperties, JwksKeyProvider jwksKeyProvider) {
+        AuthProperties.Keycloak keycloak = authProperties.getKeycloak();
+        AuthProperties.Jwt jwt = authProperties.getJwt();
+        String issuer = StringUtils.hasText(jwt.getIssuer())
+                ? jwt.getIssuer()
+                : keycloak.getUrl() + "/realms/" + keycloak.getRealm();
+
+        this.jwtParser = Jwts.parser()
+                .keyLocator(jwksKeyProvider)
+                .requireIssuer(issuer)
+                .clockSkewSeconds(jwt.getClockSkewSeconds())
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(jwt.getVerifiedTokenCacheSize())
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        Date expiration = claims.getExpiration();
+                        if (expiration == null) {
+                            return 0;
+                        }
+                        return TimeUnit.MILLISECONDS.toNanos(
+                                Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public Claims verify(String token) {
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(token, claims);
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected bearer token: {}", e.getMessage());
+            throw new RuntimeException("Invalid token", e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.config.IntradayProperties;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+final class KafkaTelemetryEventSource implements TelemetryEventSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaTelemetryEventSource.class);
+    private final KafkaConsumer<byte[], byte[]> consumer;
+    private final Supplier<Map<Integer, Long>> writtenOffsets;
+    private final Set<TopicPartition> unresolved = new HashSet<>();
+    private boolean paused;
+
+    KafkaTelemetryEventSource(IntradayProperties.Kafka kafka, Consumer<Collection<Integer>> beforeRevoke,
+                              Supplier<Map<Integer, Long>> writtenOffsets) {
+        this.writtenOffsets = writtenOffsets;
+        Properties config = new Properties();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers());
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, kafka.getGroupId());
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(kafka.getMaxPollRecords()));
+        this.consumer = new KafkaConsumer<>(config, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+        this.consumer.subscribe(List.of(kafka.getTopic()), new ConsumerRebalanceListener() {
+            @Override
+            public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                unresolved.removeAll(partitions);
+                beforeRevoke.accept(partitionNumbers(partitions));
+            }
+
+            @Override
+            public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                // Consumed only after seeking past the offsets already written to ClickHouse
+                unresolved.addAll(partitions);
+                consumer.pause(partitions);
+            }
+        });
+    }
+
+    @Override
+    public void poll(Duration timeout, EventConsumer recordConsumer) {
+        resolveAssigned();
+        Set<TopicPartition> assignment = consumer.assignment();
+        consumer.pause(assignment);
+        if (!paused) {
+            Set<TopicPartition> active = new HashSet<>(assignment);
+            active.removeAll(unresolved);
+            consumer.resume(active);
+        }
+        for (ConsumerRecord<byte[], byte[]> record : consumer.poll(timeout)) {
+            recordConsumer.accept(record.partition(), record.offset(), record.value());
+        }
+    }
+
+    @Override
+    public void commit() {
+        consumer.commitSync();
+    }
+
+    @Override
+    public void pause() {
+        paused = true;
+    }
+
+    @Override
+    public void resume() {
+        paused = false;
+    }
+
+    @Override
+    public void close() {
+        consumer.close();
+    }
+
+    private void resolveAssigned() {
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        Map<Integer, Long> written;
+        try {
+            written = writtenOffsets.get();
+        } catch (Exception e) {
+            logger.warn("Failed to read written intraday offsets, keeping {} partitions paused", unresolved.size(), e);
+            return;
+        }
+        for (TopicPartition partition : unresolved) {
+            Long lastWritten = written.get(partition.partition());
+            if (lastWritten != null && lastWritten >= consumer.position(partition)) {
+                logger.debug("Resuming {} after written offset {}", partition, lastWritten);
+                consumer.seek(partition, lastWritten + 1);
+            }
+        }
+        unresolved.clear();
+    }
+
+    private static List<Integer> partitionNumbers(Collection<TopicPartition> partitions) {
+        List<Integer> numbers = new ArrayList<>(partitions.size());
+        for (TopicPartition partition : partitions) {
+            numbers.add(partition.partition());
+        }
+        return numbers;
+    }
+}
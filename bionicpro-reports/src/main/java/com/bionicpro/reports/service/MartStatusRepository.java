@@ -0,0 +1,81 @@
+package com.bionicpro.reports.service;
+
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class MartStatusRepository {
+
+    static final String ACTIVE_USERS_QUERY =
+            "SELECT user_id FROM prosthesis_reports_mart " +
+            "WHERE report_date >= ? " +
+            "GROUP BY user_id " +
+            "ORDER BY max(last_activity) DESC " +
+            "LIMIT ?";
+    static final String LAST_LOAD_QUERY = "SELECT max(created_at) FROM prosthesis_reports_mart";
+    static final String MONTH_LOADS_QUERY =
+            "SELECT toStartOfMonth(report_date) AS month, max(created_at) FROM prosthesis_reports_mart " +
+            "GROUP BY month";
+    private final DataSource dataSource;
+
+    public MartStatusRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public List<String> findRecentlyActiveUsers(LocalDate since, int limit) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(ACTIVE_USERS_QUERY)) {
+            statement.setObject(1, since);
+            statement.setInt(2, limit);
+
+            List<String> users = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    users.add(resultSet.getString(1));
+                }
+            }
+            return users;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to query active users", e);
+        }
+    }
+
+    public Instant findLastLoadTime() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(LAST_LOAD_QUERY);
+             ResultSet resultSet = statement.executeQuery()) {
+            Timestamp lastLoad = resultSet.next() ? resultSet.getTimestamp(1) : null;
+            return lastLoad == null ? Instant.EPOCH : lastLoad.toInstant();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to query mart load time", e);
+        }
+    }
+
+    public Map<YearMonth, Instant> findMonthLoadTimes() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(MONTH_LOADS_QUERY);
+             ResultSet resultSet = statement.executeQuery()) {
+            Map<YearMonth, Instant> loadTimes = new HashMap<>();
+            while (resultSet.next()) {
+                loadTimes.put(YearMonth.from(resultSet.getObject(1, LocalDate.class)),
+                        resultSet.getTimestamp(2).toInstant());
+            }
+            return loadTimes;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to query mart load times by month", e);
+        }
+    }
+}
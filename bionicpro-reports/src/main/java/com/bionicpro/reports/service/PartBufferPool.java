@@ -0,0 +1,27 @@
+package com.bionicpro.reports.service;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+class PartBufferPool {
+
+    private final int partSize;
+    private final Semaphore available;
+    private final ConcurrentLinkedQueue<byte[]> free = new ConcurrentLinkedQueue<>();
+
+    PartBufferPool(int partSize, int maxBuffers) {
+        this.partSize = partSize;
+        this.available = new Semaphore(maxBuffers);
+    }
+
+    byte[] acquire() throws InterruptedException {
+        available.acquire();
+        byte[] buffer = free.poll();
+        return buffer != null ? buffer : new byte[partSize];
+    }
+
+    void release(byte[] buffer) {
+        free.offer(buffer);
+        available.release();
+    }
+}
@@ -0,0 +1,85 @@
+package com.bionicpro.reports.service;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public enum ReportCompression {
+
+    NONE(null),
+    GZIP("gzip"),
+    ZSTD("zstd");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final String contentEncoding;
+
+    ReportCompression(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public OutputStream compress(OutputStream out) throws IOException {
+        return switch (this) {
+            case NONE -> out;
+            case GZIP -> new GZIPOutputStream(out, BUFFER_SIZE);
+            case ZSTD -> new ZstdOutputStream(out);
+        };
+    }
+
+    public InputStream decompress(InputStream in) throws IOException {
+        return switch (this) {
+            case NONE -> in;
+            case GZIP -> new GZIPInputStream(in, BUFFER_SIZE);
+            case ZSTD -> new ZstdInputStream(in);
+        };
+    }
+
+    public boolean isAcceptedBy(String acceptEncoding) {
+        if (contentEncoding == null) {
+            return true;
+        }
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            boolean refused = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    refused = parameter.substring(2).trim().matches("0(\\.0*)?");
+                }
+            }
+            if (coding.equals(contentEncoding)) {
+                return !refused;
+            }
+            if (coding.equals("*")) {
+                wildcard = !refused;
+            }
+        }
+        return wildcard;
+    }
+
+    public static ReportCompression fromContentEncoding(String contentEncoding) {
+        if (contentEncoding == null || contentEncoding.isBlank() || contentEncoding.equalsIgnoreCase("identity")) {
+            return NONE;
+        }
+        for (ReportCompression compression : values()) {
+            if (contentEncoding.trim().equalsIgnoreCase(compression.contentEncoding)) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported content encoding: " + contentEncoding);
+    }
+}
@@ -0,0 +1,118 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.model.ReportRow;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+@Service
+public class ReportFileService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportFileService.class);
+    private final ReportSegmentCache reportSegmentCache;
+    private final ReportRepository reportRepository;
+    private final ReportRollupRebuilder reportRollupRebuilder;
+    private final boolean rollupsEnabled;
+    private final long rollupMinDays;
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    public ReportFileService(
+            ReportSegmentCache reportSegmentCache,
+            ReportRepository reportRepository,
+            ReportRollupRebuilder reportRollupRebuilder,
+            @Value("${reports.rollups.enabled:true}") boolean rollupsEnabled,
+            @Value("${reports.rollups.min-days:90}") long rollupMinDays) {
+        this.reportSegmentCache = reportSegmentCache;
+        this.reportRepository = reportRepository;
+        this.reportRollupRebuilder = reportRollupRebuilder;
+        this.rollupsEnabled = rollupsEnabled;
+        this.rollupMinDays = rollupMinDays;
+    }
+
+    public long writeReportJson(String userId, LocalDate startDate, LocalDate endDate, OutputStream out) {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("userId", userId);
+            generator.writeStringField("startDate", startDate.toString());
+            generator.writeStringField("endDate", endDate.toString());
+            generator.writeStringField("generatedAt", Instant.now().toString());
+            ReportGranularity granularity = granularity(startDate, endDate);
+            generator.writeStringField("granularity", granularity.name().toLowerCase(Locale.ROOT));
+            generator.writeArrayFieldStart("reports");
+
+            long[] records = new long[1];
+            Consumer<ReportRow> consumer = row -> {
+                writeRow(generator, row);
+                records[0]++;
+            };
+            if (granularity == ReportGranularity.DAY) {
+                reportSegmentCache.streamRows(userId, startDate, endDate, consumer);
+            } else {
+                logger.debug("Report {} {}..{} served from {} rollup", userId, startDate, endDate, granularity);
+                reportRepository.streamRows(userId, granularity, startDate, endDate, consumer);
+            }
+
+            generator.writeEndArray();
+            generator.writeNumberField("totalRecords", records[0]);
+            generator.writeEndObject();
+            return records[0];
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write report JSON", e);
+        }
+    }
+
+    private ReportGranularity granularity(LocalDate startDate, LocalDate endDate) {
+        if (!rollupsEnabled || ChronoUnit.DAYS.between(startDate, endDate) + 1 < rollupMinDays) {
+            return ReportGranularity.DAY;
+        }
+        ReportGranularity granularity = ReportGranularity.coarsest(startDate, endDate);
+        if (granularity != ReportGranularity.DAY && !reportRollupRebuilder.isCurrent(startDate, endDate)) {
+            logger.debug("Rollups for {}..{} are not rebuilt after the last mart load yet, serving days",
+                    startDate, endDate);
+            return ReportGranularity.DAY;
+        }
+        return granularity;
+    }
+
+    private static void writeRow(JsonGenerator generator, ReportRow row) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("prosthesisId", row.getProsthesisId());
+            generator.writeStringField("prosthesisModel", row.getProsthesisModel());
+            generator.writeStringField("userEmail", row.getUserEmail());
+            generator.writeStringField("userName", row.getUserName());
+            generator.writeStringField("manufactureDate", LocalDate.ofEpochDay(row.getManufactureEpochDay()).toString());
+            generator.writeStringField("reportDate", LocalDate.ofEpochDay(row.getReportEpochDay()).toString());
+            generator.writeNumberField("usageCount", row.getUsageCount());
+            generator.writeNumberField("totalUsageMinutes", row.getTotalUsageMinutes());
+            generator.writeNumberField("avgBatteryLevel", row.getAvgBatteryLevel());
+            generator.writeNumberField("commandsExecuted", row.getCommandsExecuted());
+            generator.writeStringField("lastActivity", dateTime(row.getLastActivityEpochSecond()));
+            generator.writeStringField("dataPeriodStart", dateTime(row.getDataPeriodStartEpochSecond()));
+            generator.writeStringField("dataPeriodEnd", dateTime(row.getDataPeriodEndEpochSecond()));
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write report row", e);
+        }
+    }
+
+    private static String dateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC).toString();
+    }
+}
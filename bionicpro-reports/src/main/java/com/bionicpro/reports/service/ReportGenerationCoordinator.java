@@ -0,0 +1,185 @@
+package com.bionicpro.reports.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+public class ReportGenerationCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportGenerationCoordinator.class);
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    private static final String LEASE_PREFIX = "report-lease:";
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "return 0", Long.class);
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('DEL', KEYS[1]) end " +
+            "return 0", Long.class);
+    private final StringRedisTemplate stringRedisTemplate;
+    private final S3Service s3Service;
+    private final boolean distributed;
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final Duration leaseDuration;
+    private final long waitTimeoutMillis;
+    private final String nodeId;
+    private final ScheduledExecutorService leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "report-lease-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReportGenerationCoordinator(
+            StringRedisTemplate stringRedisTemplate,
+            S3Service s3Service,
+            @Value("${reports.generation.distributed:true}") boolean distributed,
+            @Value("${reports.generation.lease-ms:30000}") long leaseMillis,
+            @Value("${reports.generation.wait-ms:120000}") long waitTimeoutMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.s3Service = s3Service;
+        this.distributed = distributed;
+        this.leaseDuration = Duration.ofMillis(leaseMillis);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.nodeId = UUID.randomUUID().toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseRenewer.shutdownNow();
+    }
+
+    public void execute(String reportKey, Runnable generation) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> existing = inFlight.putIfAbsent(reportKey, future);
+        if (existing != null) {
+            logger.debug("Joining in-flight generation of report {}", reportKey);
+            await(existing);
+            return;
+        }
+
+        try {
+            if (distributed) {
+                executeWithLease(reportKey, generation);
+            } else {
+                generation.run();
+            }
+            future.complete(null);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(reportKey, future);
+        }
+    }
+
+    private void executeWithLease(String reportKey, Runnable generation) {
+        String leaseKey = LEASE_PREFIX + reportKey;
+        long deadline = System.currentTimeMillis() + waitTimeoutMillis;
+        while (true) {
+            Boolean acquired;
+            try {
+                acquired = stringRedisTemplate.opsForValue().setIfAbsent(leaseKey, nodeId, leaseDuration);
+            } catch (Exception e) {
+                logger.warn("Failed to acquire generation lease for report {}, generating without it", reportKey, e);
+                generation.run();
+                return;
+            }
+
+            if (Boolean.TRUE.equals(acquired)) {
+                try {
+                    if (s3Service.objectExists(reportKey)) {
+                        logger.debug("Report {} was generated by another node", reportKey);
+                        return;
+                    }
+                    runWithRenewal(leaseKey, generation);
+                    return;
+                } finally {
+                    releaseLease(leaseKey);
+                }
+            }
+
+            logger.debug("Waiting for generation of report {} on another node", reportKey);
+            while (Boolean.TRUE.equals(stringRedisTemplate.hasKey(leaseKey))
+                    && System.currentTimeMillis() < deadline) {
+                sleep();
+            }
+            if (s3Service.objectExists(reportKey)) {
+                return;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                logger.warn("Remote generation of report {} did not complete, generating locally", reportKey);
+                generation.run();
+                return;
+            }
+        }
+    }
+
+    private void runWithRenewal(String leaseKey, Runnable generation) {
+        long renewIntervalMillis = Math.max(1, leaseDuration.toMillis() / 3);
+        ScheduledFuture<?> renewal = leaseRenewer.scheduleAtFixedRate(() -> {
+            try {
+                stringRedisTemplate.execute(RENEW, List.of(leaseKey), nodeId,
+                        Long.toString(leaseDuration.toMillis()));
+            } catch (Exception e) {
+                logger.warn("Failed to renew generation lease {}", leaseKey, e);
+            }
+        }, renewIntervalMillis, renewIntervalMillis, TimeUnit.MILLISECONDS);
+        try {
+            generation.run();
+        } finally {
+            renewal.cancel(false);
+        }
+    }
+
+    private void releaseLease(String leaseKey) {
+        try {
+            stringRedisTemplate.execute(RELEASE, List.of(leaseKey), nodeId);
+        } catch (Exception e) {
+            logger.warn("Failed to release generation lease {}", leaseKey, e);
+        }
+    }
+
+    private void await(CompletableFuture<Void> future) {
+        try {
+            future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Report generation failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out waiting for report generation", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for report generation", e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for report generation", e);
+        }
+    }
+}
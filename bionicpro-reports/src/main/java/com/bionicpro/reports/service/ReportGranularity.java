@@ -0,0 +1,59 @@
+package com.bionicpro.reports.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum ReportGranularity {
+    DAY("prosthesis_reports_mart FINAL", "report_date"),
+    WEEK("prosthesis_reports_weekly", "period_start"),
+    MONTH("prosthesis_reports_monthly", "period_start");
+
+    private static final String DAY_COLUMNS =
+            "SELECT user_id, user_email, user_name, prosthesis_id, prosthesis_model, manufacture_date, " +
+            "report_date, usage_count, total_usage_minutes, avg_battery_level, commands_executed, " +
+            "last_activity, data_period_start, data_period_end ";
+    private static final String ROLLUP_COLUMNS =
+            "SELECT user_id, anyLast(user_email), anyLast(user_name), prosthesis_id, anyLast(prosthesis_model), " +
+            "anyLast(manufacture_date), period_start, toUInt32(sum(usage_count)), " +
+            "toUInt32(sum(total_usage_minutes)), toFloat32(avgMerge(avg_battery_level)), " +
+            "toUInt32(sum(commands_executed)), max(last_activity), min(data_period_start), " +
+            "max(data_period_end) ";
+
+    private final String source;
+    private final String dateColumn;
+
+    ReportGranularity(String source, String dateColumn) {
+        this.source = source;
+        this.dateColumn = dateColumn;
+    }
+
+    public boolean covers(LocalDate startDate, LocalDate endDate) {
+        return switch (this) {
+            case DAY -> true;
+            case WEEK -> startDate.getDayOfWeek() == DayOfWeek.MONDAY && endDate.getDayOfWeek() == DayOfWeek.SUNDAY;
+            case MONTH -> startDate.getDayOfMonth() == 1
+                    && endDate.equals(endDate.with(TemporalAdjusters.lastDayOfMonth()));
+        };
+    }
+
+    public static ReportGranularity coarsest(LocalDate startDate, LocalDate endDate) {
+        if (MONTH.covers(startDate, endDate)) {
+            return MONTH;
+        }
+        if (WEEK.covers(startDate, endDate)) {
+            return WEEK;
+        }
+        return DAY;
+    }
+
+    String query(String userIdParam, String startDateParam, String endDateParam) {
+        String where = "WHERE user_id = " + userIdParam + " AND " + dateColumn + " BETWEEN " + startDateParam +
+                " AND " + endDateParam + " ";
+        if (this == DAY) {
+            return DAY_COLUMNS + "FROM " + source + " " + where + "ORDER BY prosthesis_id, report_date";
+        }
+        return ROLLUP_COLUMNS + "FROM " + source + " " + where +
+                "GROUP BY user_id, prosthesis_id, period_start ORDER BY prosthesis_id, period_start";
+    }
+}
@@ -0,0 +1,136 @@
+package com.bionicpro.reports.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ReportKeyIndex {
+
+    public enum Lookup {
+        PRESENT,
+        ABSENT,
+        UNKNOWN
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportKeyIndex.class);
+    private static final String REPORTS_PREFIX = "reports/";
+    private final S3Service s3Service;
+    private final boolean enabled;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+    private final long refreshIntervalSeconds;
+    private final Cache<String, Boolean> knownKeys;
+    private volatile BloomFilter<CharSequence> bloomFilter;
+    private volatile BloomFilter<CharSequence> rebuilding;
+    private volatile boolean ready;
+    private ScheduledExecutorService refresher;
+
+    public ReportKeyIndex(
+            S3Service s3Service,
+            @Value("${reports.index.enabled:true}") boolean enabled,
+            @Value("${reports.index.expected-keys:1000000}") long expectedKeys,
+            @Value("${reports.index.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${reports.index.cache-size:100000}") long cacheSize,
+            @Value("${reports.index.entry-ttl-seconds:0}") long entryTtlSeconds,
+            @Value("${reports.index.refresh-interval-seconds:600}") long refreshIntervalSeconds) {
+        this.s3Service = s3Service;
+        this.enabled = enabled;
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveRate = falsePositiveRate;
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+        Caffeine<Object, Object> cacheBuilder = Caffeine.newBuilder().maximumSize(cacheSize);
+        if (entryTtlSeconds > 0) {
+            cacheBuilder.expireAfterWrite(Duration.ofSeconds(entryTtlSeconds));
+        }
+        this.knownKeys = cacheBuilder.build();
+        this.bloomFilter = newBloomFilter();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-index-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    public Lookup lookup(String reportKey) {
+        if (!enabled) {
+            return Lookup.UNKNOWN;
+        }
+        if (knownKeys.getIfPresent(reportKey) != null) {
+            return Lookup.PRESENT;
+        }
+        if (ready && !bloomFilter.mightContain(reportKey)) {
+            return Lookup.ABSENT;
+        }
+        return Lookup.UNKNOWN;
+    }
+
+    public void add(String reportKey) {
+        if (!enabled) {
+            return;
+        }
+        knownKeys.put(reportKey, Boolean.TRUE);
+        bloomFilter.put(reportKey);
+        BloomFilter<CharSequence> next = rebuilding;
+        if (next != null) {
+            next.put(reportKey);
+        }
+    }
+
+    public void remove(String reportKey) {
+        knownKeys.invalidate(reportKey);
+    }
+
+    void refresh() {
+        BloomFilter<CharSequence> next = newBloomFilter();
+        rebuilding = next;
+        try {
+            long[] keys = new long[1];
+            s3Service.listObjectKeys(REPORTS_PREFIX, key -> {
+                next.put(key);
+                knownKeys.put(key, Boolean.TRUE);
+                keys[0]++;
+            });
+            bloomFilter = next;
+            ready = true;
+            logger.debug("Indexed {} report keys, expected false positive rate {}", keys[0],
+                    next.expectedFpp());
+        } catch (Exception e) {
+            logger.warn("Failed to refresh report key index, keeping the current one", e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private BloomFilter<CharSequence> newBloomFilter() {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedKeys, falsePositiveRate);
+    }
+}
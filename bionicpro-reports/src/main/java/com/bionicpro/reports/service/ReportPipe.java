@@ -0,0 +1,41 @@
+package com.bionicpro.reports.service;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+
+class ReportPipe extends PipedInputStream {
+
+    private volatile Throwable failure;
+
+    ReportPipe(int bufferSize) {
+        super(bufferSize);
+    }
+
+    void fail(Throwable cause) {
+        failure = cause;
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+        int value = super.read();
+        if (value < 0) {
+            checkFailure();
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read < 0) {
+            checkFailure();
+        }
+        return read;
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Report generation failed", failure);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.config.PrewarmProperties;
+import com.google.common.util.concurrent.RateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class ReportPrewarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportPrewarmer.class);
+    private final ReportService reportService;
+    private final ReportSegmentCache reportSegmentCache;
+    private final MartStatusRepository martStatusRepository;
+    private final PrewarmProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Instant lastLoadTime;
+    private volatile long lastRunStartedMillis;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService workers;
+
+    public ReportPrewarmer(
+            ReportService reportService,
+            ReportSegmentCache reportSegmentCache,
+            MartStatusRepository martStatusRepository,
+            PrewarmProperties properties) {
+        this.reportService = reportService;
+        this.reportSegmentCache = reportSegmentCache;
+        this.martStatusRepository = martStatusRepository;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-prewarm-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        workers = Executors.newFixedThreadPool(properties.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "report-prewarm");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (properties.getPollIntervalSeconds() > 0) {
+            scheduler.scheduleWithFixedDelay(this::pollMart, 0, properties.getPollIntervalSeconds(),
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            workers.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public boolean acceptsToken(String token) {
+        String expected = properties.getToken();
+        if (expected == null || expected.isEmpty() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean trigger() {
+        if (!properties.isEnabled() || !running.compareAndSet(false, true)) {
+            return false;
+        }
+        lastRunStartedMillis = System.currentTimeMillis();
+        try {
+            scheduler.execute(this::run);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    void pollMart() {
+        try {
+            Instant loadTime = martStatusRepository.findLastLoadTime();
+            Instant previous = lastLoadTime;
+            lastLoadTime = loadTime;
+            if (previous == null || !loadTime.isAfter(previous)) {
+                return;
+            }
+            long sinceLastRun = System.currentTimeMillis() - lastRunStartedMillis;
+            if (sinceLastRun < TimeUnit.SECONDS.toMillis(properties.getMinIntervalSeconds())) {
+                logger.debug("Mart reloaded at {}, last pre-warm started {} ms ago, skipping", loadTime, sinceLastRun);
+                return;
+            }
+            if (trigger()) {
+                logger.debug("Mart reloaded at {}, pre-warming reports", loadTime);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to check report mart load time", e);
+        }
+    }
+
+    private void run() {
+        long startedMillis = System.currentTimeMillis();
+        long deadline = startedMillis + TimeUnit.MINUTES.toMillis(properties.getMaxDurationMinutes());
+        AtomicInteger prewarmed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        int users = 0;
+        try {
+            // Pick up the new segment versions before rebuilding reports from them
+            reportSegmentCache.refreshVersions();
+            LocalDate since = LocalDate.now(ZoneOffset.UTC).minusDays(properties.getActiveDays());
+            List<String> userIds = martStatusRepository.findRecentlyActiveUsers(since, properties.getMaxUsers());
+            RateLimiter queryBudget = RateLimiter.create(properties.getQueriesPerSecond());
+            int batchSize = Math.max(1, properties.getBatchSize());
+            for (int from = 0; from < userIds.size() && System.currentTimeMillis() < deadline; from += batchSize) {
+                List<String> batch = userIds.subList(from, Math.min(from + batchSize, userIds.size()));
+                List<CompletableFuture<Void>> futures = new ArrayList<>(batch.size());
+                for (String userId : batch) {
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        if (System.currentTimeMillis() >= deadline) {
+                            return;
+                        }
+                        queryBudget.acquire();
+                        try {
+                            reportService.getOrGenerateDefaultReportKey(userId);
+                            prewarmed.incrementAndGet();
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            logger.debug("Failed to pre-warm report for user {}", userId, e);
+                        }
+                    }, workers));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+                users += batch.size();
+                logger.debug("Pre-warmed {}/{} users", users, userIds.size());
+            }
+            if (users < userIds.size()) {
+                logger.warn("Report pre-warm stopped after {} of {} users: time budget exhausted",
+                        users, userIds.size());
+            }
+        } catch (Exception e) {
+            logger.warn("Report pre-warm failed", e);
+        } finally {
+            running.set(false);
+            logger.info("Report pre-warm finished in {} ms: {} reports ready, {} failed",
+                    System.currentTimeMillis() - startedMillis, prewarmed.get(), failed.get());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.model.ReportRow;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public interface ReportRepository {
+
+    default void streamRows(String userId, LocalDate startDate, LocalDate endDate, Consumer<ReportRow> consumer) {
+        streamRows(userId, ReportGranularity.DAY, startDate, endDate, consumer);
+    }
+
+    void streamRows(String userId, ReportGranularity granularity, LocalDate startDate, LocalDate endDate,
+                    Consumer<ReportRow> consumer);
+}
@@ -0,0 +1,113 @@
+package com.bionicpro.reports.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ReportRollupRebuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportRollupRebuilder.class);
+    private final ReportRollupRepository reportRollupRepository;
+    private final MartStatusRepository martStatusRepository;
+    private final boolean enabled;
+    private final boolean rebuildEnabled;
+    private final long checkIntervalSeconds;
+    private volatile Set<YearMonth> staleMonths;
+    private ScheduledExecutorService scheduler;
+
+    public ReportRollupRebuilder(
+            ReportRollupRepository reportRollupRepository,
+            MartStatusRepository martStatusRepository,
+            @Value("${reports.rollups.enabled:true}") boolean enabled,
+            @Value("${reports.rollups.rebuild-enabled:true}") boolean rebuildEnabled,
+            @Value("${reports.rollups.check-interval-seconds:60}") long checkIntervalSeconds) {
+        this.reportRollupRepository = reportRollupRepository;
+        this.martStatusRepository = martStatusRepository;
+        this.enabled = enabled;
+        this.rebuildEnabled = rebuildEnabled;
+        this.checkIntervalSeconds = checkIntervalSeconds;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-rollup-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, Math.max(1, checkIntervalSeconds), TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isCurrent(LocalDate startDate, LocalDate endDate) {
+        Set<YearMonth> stale = staleMonths;
+        if (stale == null) {
+            return false;
+        }
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate));
+             month = month.plusMonths(1)) {
+            if (stale.contains(month)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void check() {
+        try {
+            Map<YearMonth, Instant> builtMonths = reportRollupRepository.findBuiltMonths();
+            Set<YearMonth> stale = new TreeSet<>();
+            martStatusRepository.findMonthLoadTimes().forEach((month, loadTime) -> {
+                Instant built = builtMonths.get(month);
+                if (built == null || built.isBefore(loadTime)) {
+                    stale.add(month);
+                }
+            });
+            staleMonths = Set.copyOf(stale);
+            if (stale.isEmpty() || !rebuildEnabled) {
+                return;
+            }
+
+            logger.debug("Rebuilding report rollups for {} months: {}", stale.size(), stale);
+            for (YearMonth month : new ArrayList<>(stale)) {
+                long startedMillis = System.currentTimeMillis();
+                try {
+                    reportRollupRepository.rebuildMonth(month);
+                } catch (Exception e) {
+                    logger.warn("Failed to rebuild report rollups for {}", month, e);
+                    continue;
+                }
+                stale.remove(month);
+                staleMonths = Set.copyOf(stale);
+                logger.debug("Report rollups for {} rebuilt in {} ms", month,
+                        System.currentTimeMillis() - startedMillis);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to check report rollups", e);
+        }
+    }
+}
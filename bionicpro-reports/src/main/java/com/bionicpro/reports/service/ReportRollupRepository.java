@@ -0,0 +1,110 @@
+package com.bionicpro.reports.service;
+
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class ReportRollupRepository {
+
+    static final String WEEKLY_TABLE = "prosthesis_reports_weekly";
+    static final String MONTHLY_TABLE = "prosthesis_reports_monthly";
+    static final String BUILT_MONTHS_QUERY =
+            "SELECT period_start, max(mart_loaded_at) FROM " + MONTHLY_TABLE + " GROUP BY period_start";
+    private static final String ROLLUP_INSERT =
+            "INSERT INTO %s (user_id, prosthesis_id, period_start, user_email, user_name, prosthesis_model, " +
+            "manufacture_date, usage_count, total_usage_minutes, avg_battery_level, commands_executed, " +
+            "last_activity, data_period_start, data_period_end, mart_loaded_at) " +
+            "SELECT " +
+            "user_id, " +
+            "prosthesis_id, " +
+            "%s AS period_start, " +
+            "anyLast(user_email), " +
+            "anyLast(user_name), " +
+            "anyLast(prosthesis_model), " +
+            "anyLast(manufacture_date), " +
+            "sum(usage_count), " +
+            "sum(total_usage_minutes), " +
+            "avgState(avg_battery_level), " +
+            "sum(commands_executed), " +
+            "max(last_activity), " +
+            "min(data_period_start), " +
+            "max(data_period_end), " +
+            "max(created_at) " +
+            "FROM prosthesis_reports_mart FINAL " +
+            "WHERE report_date BETWEEN ? AND ? AND toYYYYMM(period_start) = ? " +
+            "GROUP BY user_id, prosthesis_id, period_start";
+    private final DataSource dataSource;
+
+    public ReportRollupRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public Map<YearMonth, Instant> findBuiltMonths() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(BUILT_MONTHS_QUERY);
+             ResultSet resultSet = statement.executeQuery()) {
+            Map<YearMonth, Instant> builtMonths = new HashMap<>();
+            while (resultSet.next()) {
+                builtMonths.put(YearMonth.from(resultSet.getObject(1, LocalDate.class)),
+                        resultSet.getTimestamp(2).toInstant());
+            }
+            return builtMonths;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to query report rollup load times", e);
+        }
+    }
+
+    public void rebuildMonth(YearMonth month) {
+        // The last week of the previous month may end in this one
+        YearMonth previous = month.minusMonths(1);
+        rebuildPartition(WEEKLY_TABLE, "toMonday(report_date)", previous,
+                previous.atDay(1), previous.atEndOfMonth().plusDays(6));
+        rebuildPartition(WEEKLY_TABLE, "toMonday(report_date)", month,
+                month.atDay(1), month.atEndOfMonth().plusDays(6));
+        // The monthly partition carries the mart load time the month is checked against, so it goes last
+        rebuildPartition(MONTHLY_TABLE, "toStartOfMonth(report_date)", month,
+                month.atDay(1), month.atEndOfMonth());
+    }
+
+    private void rebuildPartition(String table, String periodExpression, YearMonth partition,
+                                  LocalDate from, LocalDate to) {
+        String staging = table + "_rebuild_" + UUID.randomUUID().toString().replace("-", "");
+        int partitionId = partition.getYear() * 100 + partition.getMonthValue();
+        try (Connection connection = dataSource.getConnection()) {
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE TABLE " + staging + " AS " + table);
+                }
+                try (PreparedStatement statement = connection.prepareStatement(
+                        String.format(ROLLUP_INSERT, staging, periodExpression))) {
+                    statement.setObject(1, from);
+                    statement.setObject(2, to);
+                    statement.setInt(3, partitionId);
+                    statement.executeUpdate();
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ALTER TABLE " + table + " REPLACE PARTITION " + partitionId +
+                            " FROM " + staging);
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP TABLE IF EXISTS " + staging);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to rebuild " + table + " partition " + partitionId, e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.model.ReportRow;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+final class ReportSegment {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private ReportSegment() {
+    }
+
+    static class Writer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        Writer() {
+            try {
+                out.writeInt(FORMAT_VERSION);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write report segment", e);
+            }
+        }
+
+        void write(ReportRow row) {
+            try {
+                out.writeUTF(row.getUserId());
+                out.writeUTF(row.getUserEmail());
+                out.writeUTF(row.getUserName());
+                out.writeUTF(row.getProsthesisId());
+                out.writeUTF(row.getProsthesisModel());
+                out.writeInt(row.getManufactureEpochDay());
+                out.writeInt(row.getReportEpochDay());
+                out.writeLong(row.getUsageCount());
+                out.writeLong(row.getTotalUsageMinutes());
+                out.writeFloat(row.getAvgBatteryLevel());
+                out.writeLong(row.getCommandsExecuted());
+                out.writeLong(row.getLastActivityEpochSecond());
+                out.writeLong(row.getDataPeriodStartEpochSecond());
+                out.writeLong(row.getDataPeriodEndEpochSecond());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write report segment", e);
+            }
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    static class Cursor {
+        private final ByteArrayInputStream bytes;
+        private final DataInputStream in;
+        private final long startEpochDay;
+        private final long endEpochDay;
+        private final ReportRow row = new ReportRow();
+
+        Cursor(byte[] segment, long startEpochDay, long endEpochDay) {
+            this.bytes = new ByteArrayInputStream(segment);
+            this.in = new DataInputStream(bytes);
+            this.startEpochDay = startEpochDay;
+            this.endEpochDay = endEpochDay;
+            try {
+                int version = in.readInt();
+                if (version != FORMAT_VERSION) {
+                    throw new IllegalStateException("Unsupported report segment version " + version);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read report segment", e);
+            }
+        }
+
+        ReportRow row() {
+            return row;
+        }
+
+        boolean advance() {
+            try {
+                while (bytes.available() > 0) {
+                    row.setUserId(in.readUTF());
+                    row.setUserEmail(in.readUTF());
+                    row.setUserName(in.readUTF());
+                    row.setProsthesisId(in.readUTF());
+                    row.setProsthesisModel(in.readUTF());
+                    row.setManufactureEpochDay(in.readInt());
+                    row.setReportEpochDay(in.readInt());
+                    row.setUsageCount(in.readLong());
+                    row.setTotalUsageMinutes(in.readLong());
+                    row.setAvgBatteryLevel(in.readFloat());
+                    row.setCommandsExecuted(in.readLong());
+                    row.setLastActivityEpochSecond(in.readLong());
+                    row.setDataPeriodStartEpochSecond(in.readLong());
+                    row.setDataPeriodEndEpochSecond(in.readLong());
+                    if (row.getReportEpochDay() >= startEpochDay && row.getReportEpochDay() <= endEpochDay) {
+                        return true;
+                    }
+                }
+                return false;
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read report segment", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.model.ReportObject;
+import com.bionicpro.reports.model.ReportRow;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+@Service
+public class ReportSegmentCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportSegmentCache.class);
+    private static final String CONTENT_TYPE = "application/octet-stream";
+    private static final Comparator<ReportSegment.Cursor> ROW_ORDER = Comparator
+            .comparing((ReportSegment.Cursor cursor) -> cursor.row().getProsthesisId())
+            .thenComparingInt(cursor -> cursor.row().getReportEpochDay());
+    private final ReportRepository reportRepository;
+    private final MartStatusRepository martStatusRepository;
+    private final S3Service s3Service;
+    private final boolean enabled;
+    private final int settleDays;
+    private final long versionCheckMillis;
+    private final Cache<String, byte[]> segments;
+    private volatile MartVersions martVersions;
+
+    public ReportSegmentCache(
+            ReportRepository reportRepository,
+            MartStatusRepository martStatusRepository,
+            S3Service s3Service,
+            @Value("${reports.segments.enabled:true}") boolean enabled,
+            @Value("${reports.segments.settle-days:3}") int settleDays,
+            @Value("${reports.segments.version-check-seconds:60}") long versionCheckSeconds,
+            @Value("${reports.segments.memory-bytes:67108864}") long memoryBytes) {
+        this.reportRepository = reportRepository;
+        this.martStatusRepository = martStatusRepository;
+        this.s3Service = s3Service;
+        this.enabled = enabled;
+        this.settleDays = settleDays;
+        this.versionCheckMillis = versionCheckSeconds * 1000;
+        this.segments = Caffeine.newBuilder()
+                .maximumWeight(memoryBytes)
+                .weigher((String key, byte[] segment) -> segment.length)
+                .build();
+    }
+
+    public void streamRows(String userId, LocalDate startDate, LocalDate endDate, Consumer<ReportRow> consumer) {
+        Map<YearMonth, Long> monthVersions = enabled ? monthVersions() : null;
+        if (monthVersions == null) {
+            reportRepository.streamRows(userId, startDate, endDate, consumer);
+            return;
+        }
+
+        YearMonth lastSettled = YearMonth.from(LocalDate.now(ZoneOffset.UTC).minusDays(settleDays)).minusMonths(1);
+        TreeMap<YearMonth, byte[]> rangeSegments = new TreeMap<>();
+        List<YearMonth> missing = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate));
+             month = month.plusMonths(1)) {
+            byte[] segment = month.isAfter(lastSettled) ? null : loadSegment(segmentKey(userId, month, monthVersions));
+            if (segment != null) {
+                rangeSegments.put(month, segment);
+            } else {
+                missing.add(month);
+            }
+        }
+        logger.debug("Report {} {}..{}: {} cached segments, {} to query", userId, startDate, endDate,
+                rangeSegments.size(), missing.size());
+
+        int runStart = 0;
+        for (int i = 1; i <= missing.size(); i++) {
+            if (i == missing.size() || !missing.get(i).equals(missing.get(i - 1).plusMonths(1))) {
+                querySegments(userId, missing.subList(runStart, i), startDate, endDate, lastSettled, monthVersions,
+                        rangeSegments);
+                runStart = i;
+            }
+        }
+
+        merge(rangeSegments, startDate, endDate, consumer);
+    }
+
+    private void querySegments(String userId, List<YearMonth> months, LocalDate startDate, LocalDate endDate,
+                               YearMonth lastSettled, Map<YearMonth, Long> monthVersions,
+                               Map<YearMonth, byte[]> rangeSegments) {
+        YearMonth first = months.get(0);
+        YearMonth last = months.get(months.size() - 1);
+        LocalDate queryStart = first.isAfter(lastSettled) ? max(startDate, first.atDay(1)) : first.atDay(1);
+        LocalDate queryEnd = last.isAfter(lastSettled) ? min(endDate, last.atEndOfMonth()) : last.atEndOfMonth();
+
+        Map<YearMonth, ReportSegment.Writer> writers = new HashMap<>();
+        for (YearMonth month : months) {
+            writers.put(month, new ReportSegment.Writer());
+        }
+        reportRepository.streamRows(userId, queryStart, queryEnd, row ->
+                writers.get(YearMonth.from(LocalDate.ofEpochDay(row.getReportEpochDay()))).write(row));
+
+        for (YearMonth month : months) {
+            byte[] segment = writers.get(month).toByteArray();
+            rangeSegments.put(month, segment);
+            if (!month.isAfter(lastSettled)) {
+                storeSegment(segmentKey(userId, month, monthVersions), segment);
+            }
+        }
+    }
+
+    private static void merge(TreeMap<YearMonth, byte[]> rangeSegments, LocalDate startDate, LocalDate endDate,
+                              Consumer<ReportRow> consumer) {
+        PriorityQueue<ReportSegment.Cursor> cursors = new PriorityQueue<>(Math.max(1, rangeSegments.size()),
+                ROW_ORDER);
+        for (byte[] segment : rangeSegments.values()) {
+            ReportSegment.Cursor cursor = new ReportSegment.Cursor(segment, startDate.toEpochDay(),
+                    endDate.toEpochDay());
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        while (!cursors.isEmpty()) {
+            ReportSegment.Cursor cursor = cursors.poll();
+            consumer.accept(cursor.row());
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+    }
+
+    public void refreshVersions() {
+        loadVersions();
+    }
+
+    private synchronized MartVersions loadVersions() {
+        MartVersions current = martVersions;
+        Instant lastLoad = martStatusRepository.findLastLoadTime();
+        if (current != null && current.lastLoad.equals(lastLoad)) {
+            martVersions = new MartVersions(lastLoad, current.months);
+        } else {
+            Map<YearMonth, Long> months = new HashMap<>();
+            martStatusRepository.findMonthLoadTimes().forEach((month, loadTime) ->
+                    months.put(month, loadTime.toEpochMilli()));
+            martVersions = new MartVersions(lastLoad, months);
+            logger.debug("Report mart loaded at {}, segment versions refreshed for {} months", lastLoad,
+                    months.size());
+        }
+        return martVersions;
+    }
+
+    private Map<YearMonth, Long> monthVersions() {
+        MartVersions current = martVersions;
+        if (current != null && System.currentTimeMillis() - current.checkedAtMillis < versionCheckMillis) {
+            return current.months;
+        }
+        try {
+            return loadVersions().months;
+        } catch (Exception e) {
+            logger.warn("Failed to check report mart versions, querying reports without segments", e);
+            return null;
+        }
+    }
+
+    private byte[] loadSegment(String segmentKey) {
+        byte[] segment = segments.getIfPresent(segmentKey);
+        if (segment != null) {
+            return segment;
+        }
+
+        try {
+            ReportObject object = s3Service.getObject(segmentKey);
+            if (object == null) {
+                return null;
+            }
+            ReportCompression compression = ReportCompression.fromContentEncoding(object.getContentEncoding());
+            try (InputStream in = compression.decompress(object.getContent())) {
+                segment = in.readAllBytes();
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to read report segment {}, querying it instead", segmentKey, e);
+            return null;
+        }
+        segments.put(segmentKey, segment);
+        return segment;
+    }
+
+    private void storeSegment(String segmentKey, byte[] segment) {
+        segments.put(segmentKey, segment);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(segment.length / 4 + 64);
+        try {
+            try (OutputStream out = ReportCompression.GZIP.compress(compressed)) {
+                out.write(segment);
+            }
+            s3Service.putObject(segmentKey, compressed.toByteArray(), CONTENT_TYPE,
+                    ReportCompression.GZIP.getContentEncoding());
+        } catch (Exception e) {
+            logger.warn("Failed to store report segment {}", segmentKey, e);
+        }
+    }
+
+    private static String segmentKey(String userId, YearMonth month, Map<YearMonth, Long> monthVersions) {
+        // A reload touching the month changes its max(created_at), so segments built before it are never read again
+        return "segments/" + userId + "/" + month + "-" + monthVersions.getOrDefault(month, 0L) + ".bin";
+    }
+
+    private static final class MartVersions {
+        private final Instant lastLoad;
+        private final Map<YearMonth, Long> months;
+        private final long checkedAtMillis = System.currentTimeMillis();
+
+        MartVersions(Instant lastLoad, Map<YearMonth, Long> months) {
+            this.lastLoad = lastLoad;
+            this.months = months;
+        }
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,135 @@
+package com.bionicpro.reports.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedOutputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Service
+public class ReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
+    private static final String CONTENT_TYPE = "application/json";
+    private final S3Service s3Service;
+    private final ReportFileService reportFileService;
+    private final ReportKeyIndex reportKeyIndex;
+    private final ReportGenerationCoordinator generationCoordinator;
+    private final int pipeBufferBytes;
+    private final ReportCompression compression;
+    private final int defaultRangeDays;
+    private final ExecutorService uploads;
+
+    public ReportService(
+            S3Service s3Service,
+            ReportFileService reportFileService,
+            ReportKeyIndex reportKeyIndex,
+            ReportGenerationCoordinator generationCoordinator,
+            @Value("${reports.stream.pipe-buffer-bytes:65536}") int pipeBufferBytes,
+            @Value("${reports.compression:gzip}") ReportCompression compression,
+            @Value("${reports.default-range-days:30}") int defaultRangeDays,
+            @Value("${reports.stream.upload-threads:8}") int uploadThreads) {
+        this.s3Service = s3Service;
+        this.reportFileService = reportFileService;
+        this.reportKeyIndex = reportKeyIndex;
+        this.generationCoordinator = generationCoordinator;
+        this.pipeBufferBytes = pipeBufferBytes;
+        this.compression = compression;
+        this.defaultRangeDays = defaultRangeDays;
+        this.uploads = Executors.newFixedThreadPool(Math.max(1, uploadThreads), runnable -> {
+            Thread thread = new Thread(runnable, "report-upload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getDefaultRangeDays() {
+        return defaultRangeDays;
+    }
+
+    public String getOrGenerateDefaultReportKey(String userId) {
+        LocalDate endDate = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        return getOrGenerateReportKey(userId, endDate.minusDays(defaultRangeDays - 1), endDate);
+    }
+
+    public String getOrGenerateReportKey(String userId, LocalDate startDate, LocalDate endDate) {
+        String reportKey = s3Service.generateReportKey(userId, startDate.toString(), endDate.toString());
+        ReportKeyIndex.Lookup lookup = reportKeyIndex.lookup(reportKey);
+        if (lookup == ReportKeyIndex.Lookup.PRESENT) {
+            logger.debug("Report {} found in key index", reportKey);
+            return reportKey;
+        }
+        if (lookup == ReportKeyIndex.Lookup.UNKNOWN && s3Service.objectExists(reportKey)) {
+            logger.debug("Report {} found in S3", reportKey);
+            reportKeyIndex.add(reportKey);
+            return reportKey;
+        }
+
+        generationCoordinator.execute(reportKey, () -> generateReport(reportKey, userId, startDate, endDate));
+        reportKeyIndex.add(reportKey);
+        return reportKey;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploads.shutdownNow();
+    }
+
+    private void generateReport(String reportKey, String userId, LocalDate startDate, LocalDate endDate) {
+        ReportPipe pipe = new ReportPipe(pipeBufferBytes);
+        PipedOutputStream out;
+        try {
+            out = new PipedOutputStream(pipe);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open report stream", e);
+        }
+
+        // Rows are written on the caller's thread; a queued upload only holds the writer back,
+        // and started uploads always have a running writer, so the bounded pool cannot deadlock
+        Future<?> upload = uploads.submit(() -> {
+            try (pipe) {
+                s3Service.putObject(reportKey, pipe, CONTENT_TYPE, compression.getContentEncoding());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to close report stream", e);
+            }
+        });
+
+        OutputStream target = out;
+        try {
+            target = compression.compress(out);
+            long records = reportFileService.writeReportJson(userId, startDate, endDate, target);
+            logger.debug("Streamed {} records into report {} ({})", records, reportKey, compression);
+        } catch (Throwable e) {
+            pipe.fail(e);
+        } finally {
+            try {
+                target.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close report stream {}", reportKey, e);
+            }
+        }
+
+        try {
+            upload.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Failed to upload report " + reportKey, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            upload.cancel(true);
+            throw new RuntimeException("Interrupted while uploading report " + reportKey, e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.bionicpro.reports.service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+class RowBinaryReader {
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private final byte[][] lastStringBytes;
+    private final String[] lastStrings;
+    private int position;
+    private int limit;
+
+    RowBinaryReader(InputStream in, int bufferSize, int stringColumns) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+        this.lastStringBytes = new byte[stringColumns][];
+        this.lastStrings = new String[stringColumns];
+    }
+
+    boolean hasMore() throws IOException {
+        return position < limit || fill() > 0;
+    }
+
+    int readUInt16() throws IOException {
+        require(2);
+        int value = (buffer[position] & 0xFF) | (buffer[position + 1] & 0xFF) << 8;
+        position += 2;
+        return value;
+    }
+
+    long readUInt32() throws IOException {
+        return readInt32() & 0xFFFFFFFFL;
+    }
+
+    float readFloat32() throws IOException {
+        return Float.intBitsToFloat(readInt32());
+    }
+
+    String readString(int column) throws IOException {
+        int length = readVarInt();
+        if (length > buffer.length) {
+            byte[] bytes = new byte[length];
+            int copied = limit - position;
+            System.arraycopy(buffer, position, bytes, 0, copied);
+            position = limit;
+            while (copied < length) {
+                int read = in.read(bytes, copied, length - copied);
+                if (read < 0) {
+                    throw new EOFException("Truncated RowBinary string");
+                }
+                copied += read;
+            }
+            return remember(column, bytes, new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        require(length);
+        byte[] last = lastStringBytes[column];
+        if (last != null && Arrays.equals(last, 0, last.length, buffer, position, position + length)) {
+            position += length;
+            return lastStrings[column];
+        }
+        byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+        position += length;
+        return remember(column, bytes, new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private String remember(int column, byte[] bytes, String value) {
+        lastStringBytes[column] = bytes;
+        lastStrings[column] = value;
+        return value;
+    }
+
+    private int readInt32() throws IOException {
+        require(4);
+        int value = (buffer[position] & 0xFF)
+                | (buffer[position + 1] & 0xFF) << 8
+                | (buffer[position + 2] & 0xFF) << 16
+                | (buffer[position + 3] & 0xFF) << 24;
+        position += 4;
+        return value;
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            require(1);
+            byte b = buffer[position++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed RowBinary length");
+    }
+
+    private void require(int bytes) throws IOException {
+        while (limit - position < bytes) {
+            if (fill() < 0) {
+                throw new EOFException("Truncated RowBinary row");
+            }
+        }
+    }
+
+    private int fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read > 0) {
+            limit += read;
+        }
+        return read;
+    }
+}
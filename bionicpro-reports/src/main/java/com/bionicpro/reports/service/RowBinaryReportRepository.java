@@ -0,0 +1,141 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.config.ClickHouseProperties;
+import com.bionicpro.reports.model.ReportRow;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "clickhouse.read-path", havingValue = "rowbinary")
+public class RowBinaryReportRepository implements ReportRepository {
+
+    private static final Map<ReportGranularity, String> QUERIES = new EnumMap<>(ReportGranularity.class);
+    private static final int USER_ID = 0;
+    private static final int USER_EMAIL = 1;
+    private static final int USER_NAME = 2;
+    private static final int PROSTHESIS_ID = 3;
+    private static final int PROSTHESIS_MODEL = 4;
+    private static final int STRING_COLUMNS = 5;
+
+    static {
+        for (ReportGranularity granularity : ReportGranularity.values()) {
+            QUERIES.put(granularity, granularity.query("{user_id:String}", "{start_date:Date}", "{end_date:Date}") +
+                    " FORMAT RowBinary");
+        }
+    }
+
+    private final ClickHouseProperties properties;
+    private final CloseableHttpClient httpClient;
+    private final int bufferSize;
+
+    public RowBinaryReportRepository(ClickHouseProperties properties) {
+        this.properties = properties;
+        ClickHouseProperties.Http http = properties.getHttp();
+        this.bufferSize = http.getBufferSize();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(http.getMaxConnections())
+                        .setMaxConnPerRoute(http.getMaxConnections())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(http.getConnectTimeoutMs()))
+                                .setSocketTimeout(Timeout.ofMilliseconds(properties.getSocketTimeoutMs()))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(http.getConnectionRequestTimeoutMs()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(properties.getSocketTimeoutMs()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofSeconds(http.getKeepAliveSeconds()))
+                .evictIdleConnections(TimeValue.ofSeconds(http.getKeepAliveSeconds()))
+                .build();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    @Override
+    public void streamRows(String userId, ReportGranularity granularity, LocalDate startDate, LocalDate endDate,
+                           Consumer<ReportRow> consumer) {
+        HttpPost request = new HttpPost(queryUri(userId, startDate, endDate));
+        request.setHeader("X-ClickHouse-User", properties.getUsername());
+        request.setHeader("X-ClickHouse-Key", properties.getPassword());
+        request.setEntity(new StringEntity(QUERIES.get(granularity), ContentType.TEXT_PLAIN));
+
+        try {
+            httpClient.execute(request, response -> {
+                if (response.getCode() != 200) {
+                    throw new IOException("ClickHouse query failed with status " + response.getCode() + ": "
+                            + EntityUtils.toString(response.getEntity()));
+                }
+                try (InputStream in = response.getEntity().getContent()) {
+                    readRows(new RowBinaryReader(in, bufferSize, STRING_COLUMNS), consumer);
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to query report data", e);
+        }
+    }
+
+    private static void readRows(RowBinaryReader reader, Consumer<ReportRow> consumer) throws IOException {
+        ReportRow row = new ReportRow();
+        while (reader.hasMore()) {
+            row.setUserId(reader.readString(USER_ID));
+            row.setUserEmail(reader.readString(USER_EMAIL));
+            row.setUserName(reader.readString(USER_NAME));
+            row.setProsthesisId(reader.readString(PROSTHESIS_ID));
+            row.setProsthesisModel(reader.readString(PROSTHESIS_MODEL));
+            row.setManufactureEpochDay(reader.readUInt16());
+            row.setReportEpochDay(reader.readUInt16());
+            row.setUsageCount(reader.readUInt32());
+            row.setTotalUsageMinutes(reader.readUInt32());
+            row.setAvgBatteryLevel(reader.readFloat32());
+            row.setCommandsExecuted(reader.readUInt32());
+            row.setLastActivityEpochSecond(reader.readUInt32());
+            row.setDataPeriodStartEpochSecond(reader.readUInt32());
+            row.setDataPeriodEndEpochSecond(reader.readUInt32());
+            consumer.accept(row);
+        }
+    }
+
+    private URI queryUri(String userId, LocalDate startDate, LocalDate endDate) {
+        try {
+            return new URIBuilder()
+                    .setScheme("http")
+                    .setHost(properties.getHost())
+                    .setPort(properties.getHttpPort())
+                    .setPath("/")
+                    .addParameter("database", properties.getDatabase())
+                    .addParameter("param_user_id", userId)
+                    .addParameter("param_start_date", startDate.toString())
+                    .addParameter("param_end_date", endDate.toString())
+                    .build();
+        } catch (URISyntaxException e) {
+            throw new RuntimeException("Invalid ClickHouse address", e);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.config.S3MultipartClient;
+import com.bionicpro.reports.config.S3Properties;
+import com.bionicpro.reports.model.ReportObject;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.ListObjectsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.Item;
+import io.minio.messages.Part;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+@Service
+public class S3Service {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3Service.class);
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+    private final MinioClient minioClient;
+    private final S3MultipartClient multipartClient;
+    private final String bucket;
+    private final String region;
+    private final int partSize;
+    private final int parallelism;
+    private final PartBufferPool partBuffers;
+
+    public S3Service(MinioClient minioClient, S3MultipartClient multipartClient, S3Properties s3Properties) {
+        S3Properties.Multipart multipart = s3Properties.getMultipart();
+        if (multipart.getPartSizeBytes() < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("s3.multipart.part-size-bytes must be at least " + MIN_PART_SIZE);
+        }
+        this.minioClient = minioClient;
+        this.multipartClient = multipartClient;
+        this.bucket = s3Properties.getBucket();
+        this.region = s3Properties.getRegion();
+        this.partSize = multipart.getPartSizeBytes();
+        this.parallelism = Math.max(1, Math.min(multipart.getParallelism(), multipart.getMaxBuffers() - 1));
+        this.partBuffers = new PartBufferPool(partSize, Math.max(2, multipart.getMaxBuffers()));
+    }
+
+    @PostConstruct
+    public void initBucket() {
+        try {
+            if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build())) {
+                minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+                logger.info("Created bucket {}", bucket);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to initialize bucket " + bucket, e);
+        }
+    }
+
+    public boolean objectExists(String objectKey) {
+        try {
+            minioClient.statObject(StatObjectArgs.builder().bucket(bucket).object(objectKey).build());
+            return true;
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return false;
+            }
+            throw new RuntimeException("Failed to check object " + objectKey, e);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to check object " + objectKey, e);
+        }
+    }
+
+    public void putObject(String objectKey, byte[] content, String contentType, String contentEncoding) {
+        // Already in memory, so no part buffer is taken: callers may hold one for a report upload of their own
+        try {
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(objectKey)
+                    .stream(new ByteArrayInputStream(content), content.length, -1)
+                    .contentType(contentType)
+                    .headers(contentEncoding == null ? Map.of() : Map.of("Content-Encoding", contentEncoding))
+                    .build());
+            logger.debug("Uploaded object {} ({} bytes)", objectKey, content.length);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to upload object " + objectKey, e);
+        }
+    }
+
+    public void putObject(String objectKey, InputStream stream, String contentType, String contentEncoding) {
+        byte[] buffer;
+        int length;
+        try {
+            buffer = partBuffers.acquire();
+        } catch (InterruptedException e) {
+            throw new RuntimeException("Interrupted while uploading object " + objectKey, e);
+        }
+        try {
+            length = stream.readNBytes(buffer, 0, partSize);
+        } catch (IOException e) {
+            partBuffers.release(buffer);
+            throw new RuntimeException("Failed to upload object " + objectKey, e);
+        }
+
+        if (length < partSize) {
+            try {
+                minioClient.putObject(PutObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(objectKey)
+                        .stream(new ByteArrayInputStream(buffer, 0, length), length, -1)
+                        .contentType(contentType)
+                        .headers(contentEncoding == null ? Map.of() : Map.of("Content-Encoding", contentEncoding))
+                        .build());
+                logger.debug("Uploaded object {} ({} bytes)", objectKey, length);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to upload object " + objectKey, e);
+            } finally {
+                partBuffers.release(buffer);
+            }
+            return;
+        }
+
+        uploadMultipart(objectKey, stream, buffer, contentType, contentEncoding);
+    }
+
+    private void uploadMultipart(String objectKey, InputStream stream, byte[] firstPart, String contentType,
+                                 String contentEncoding) {
+        Multimap<String, String> headers = HashMultimap.create();
+        headers.put("Content-Type", contentType);
+        if (contentEncoding != null) {
+            headers.put("Content-Encoding", contentEncoding);
+        }
+
+        String uploadId;
+        try {
+            uploadId = multipartClient.createUpload(bucket, region, objectKey, headers);
+        } catch (Exception e) {
+            partBuffers.release(firstPart);
+            throw new RuntimeException("Failed to upload object " + objectKey, e);
+        }
+
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<Part>> uploads = new ArrayList<>();
+        byte[] buffer = firstPart;
+        int length = partSize;
+        try {
+            while (length > 0) {
+                inFlight.acquire();
+                byte[] data = buffer;
+                buffer = null;
+                CompletableFuture<Part> upload;
+                try {
+                    upload = multipartClient.uploadPart(bucket, region, objectKey, uploadId, uploads.size() + 1,
+                            data, length);
+                } catch (Exception e) {
+                    inFlight.release();
+                    partBuffers.release(data);
+                    throw e;
+                }
+                uploads.add(upload.whenComplete((part, error) -> {
+                    if (error != null) {
+                        failure.compareAndSet(null, error);
+                    }
+                    partBuffers.release(data);
+                    inFlight.release();
+                }));
+                if (failure.get() != null) {
+                    throw new IOException("Part upload failed", failure.get());
+                }
+
+                buffer = partBuffers.acquire();
+                length = stream.readNBytes(buffer, 0, partSize);
+            }
+            partBuffers.release(buffer);
+            buffer = null;
+
+            Part[] parts = new Part[uploads.size()];
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = uploads.get(i).get();
+            }
+            multipartClient.completeUpload(bucket, region, objectKey, uploadId, parts);
+            logger.debug("Uploaded object {} in {} parts", objectKey, parts.length);
+        } catch (Exception e) {
+            if (buffer != null) {
+                partBuffers.release(buffer);
+            }
+            abortUpload(objectKey, uploadId);
+            throw new RuntimeException("Failed to upload object " + objectKey, e);
+        }
+    }
+
+    private void abortUpload(String objectKey, String uploadId) {
+        try {
+            multipartClient.abortUpload(bucket, region, objectKey, uploadId);
+        } catch (Exception e) {
+            logger.debug("Failed to abort upload {} of {}", uploadId, objectKey, e);
+        }
+    }
+
+    public ReportObject getObject(String objectKey) {
+        try {
+            GetObjectResponse response = minioClient.getObject(
+                    GetObjectArgs.builder().bucket(bucket).object(objectKey).build());
+            String contentLength = response.headers().get("Content-Length");
+            return new ReportObject(response, response.headers().get("Content-Type"),
+                    response.headers().get("Content-Encoding"),
+                    contentLength == null ? -1 : Long.parseLong(contentLength));
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return null;
+            }
+            throw new RuntimeException("Failed to get object " + objectKey, e);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get object " + objectKey, e);
+        }
+    }
+
+    public void listObjectKeys(String prefix, Consumer<String> consumer) {
+        try {
+            for (Result<Item> result : minioClient.listObjects(
+                    ListObjectsArgs.builder().bucket(bucket).prefix(prefix).recursive(true).build())) {
+                Item item = result.get();
+                if (!item.isDir()) {
+                    consumer.accept(item.objectName());
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to list objects under " + prefix, e);
+        }
+    }
+
+    public String generateReportKey(String userId, String startDate, String endDate) {
+        return "reports/" + userId + "/" + startDate + "_" + endDate + "/report.json";
+    }
+}
@@ -0,0 +1,103 @@
+package com.bionicpro.reports.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+final class TelemetryEventParser {
+
+    private static final long SECONDS_PER_DAY = 86400;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    boolean parse(byte[] value, int minEpochDay, IntradayUsageTable table) {
+        if (value == null || value.length == 0) {
+            return false;
+        }
+        String prosthesisId = null;
+        long epochSecond = Long.MIN_VALUE;
+        double batteryLevel = Double.NaN;
+        boolean hasCommands = false;
+        try (JsonParser parser = jsonFactory.createParser(value)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "prosthesis_id" -> prosthesisId = parser.getValueAsString();
+                    case "timestamp" -> epochSecond = epochSecond(parser, token);
+                    case "battery_level" -> batteryLevel = token.isNumeric() ? parser.getDoubleValue() : Double.NaN;
+                    case "actuator_commands" -> hasCommands = hasCommands(parser, token);
+                    case "__op" -> {
+                        String op = parser.getValueAsString();
+                        if (op != null && !op.equals("c") && !op.equals("r")) {
+                            return false;
+                        }
+                    }
+                    case "__deleted" -> {
+                        if ("true".equals(parser.getValueAsString())) {
+                            return false;
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Malformed telemetry event", e);
+        }
+        if (prosthesisId == null || epochSecond == Long.MIN_VALUE) {
+            return false;
+        }
+
+        int epochDay = (int) Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        if (epochDay < minEpochDay) {
+            return false;
+        }
+
+        UUID prosthesis = UUID.fromString(prosthesisId);
+        table.add(prosthesis.getMostSignificantBits(), prosthesis.getLeastSignificantBits(), epochDay, epochSecond,
+                batteryLevel, hasCommands);
+        return true;
+    }
+
+    private static long epochSecond(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            // Debezium MicroTimestamp: microseconds since epoch, wall-clock time taken as UTC
+            return Math.floorDiv(parser.getLongValue(), 1_000_000L);
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return LocalDateTime.parse(parser.getText()).toEpochSecond(ZoneOffset.UTC);
+        }
+        return Long.MIN_VALUE;
+    }
+
+    private static boolean hasCommands(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            JsonToken next = parser.nextToken();
+            if (next.isStructEnd()) {
+                return false;
+            }
+            int depth = 1;
+            while (true) {
+                if (next.isStructStart()) {
+                    depth++;
+                } else if (next.isStructEnd() && --depth == 0) {
+                    return true;
+                }
+                next = parser.nextToken();
+            }
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String commands = parser.getText().trim();
+            return !commands.isEmpty() && !commands.equals("{}") && !commands.equals("[]")
+                    && !commands.equals("null");
+        }
+        return false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bionicpro.reports.service;
+
+import java.time.Duration;
+
+interface TelemetryEventSource extends AutoCloseable {
+
+    interface EventConsumer {
+        void accept(int partition, long offset, byte[] value);
+    }
+
+    void poll(Duration timeout, EventConsumer consumer);
+
+    void commit();
+
+    void pause();
+
+    void resume();
+
+    @Override
+    void close();
+}
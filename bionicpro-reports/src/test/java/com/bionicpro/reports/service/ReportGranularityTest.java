@@ -0,0 +1,43 @@
+package com.bionicpro.reports.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportGranularityTest {
+
+    @Test
+    void dayCoversAnyRange() {
+        assertThat(ReportGranularity.DAY.covers(LocalDate.of(2024, 3, 13), LocalDate.of(2024, 3, 13))).isTrue();
+        assertThat(ReportGranularity.DAY.covers(LocalDate.of(2024, 3, 13), LocalDate.of(2024, 5, 2))).isTrue();
+    }
+
+    @Test
+    void weekCoversRangesFromMondayToSunday() {
+        // 2024-03-04 is a Monday, 2024-03-17 a Sunday
+        assertThat(ReportGranularity.WEEK.covers(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 17))).isTrue();
+        assertThat(ReportGranularity.WEEK.covers(LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 17))).isFalse();
+        assertThat(ReportGranularity.WEEK.covers(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 16))).isFalse();
+    }
+
+    @Test
+    void monthCoversRangesFromFirstToLastDayOfMonth() {
+        assertThat(ReportGranularity.MONTH.covers(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 29))).isTrue();
+        assertThat(ReportGranularity.MONTH.covers(LocalDate.of(2023, 2, 1), LocalDate.of(2023, 2, 28))).isTrue();
+        assertThat(ReportGranularity.MONTH.covers(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 28))).isFalse();
+        assertThat(ReportGranularity.MONTH.covers(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 31))).isFalse();
+    }
+
+    @Test
+    void coarsestPrefersMonthThenWeekThenDay() {
+        // 2024-04-01 is a Monday and 2024-06-30 a Sunday, so both rollups cover the range
+        assertThat(ReportGranularity.coarsest(LocalDate.of(2024, 4, 1), LocalDate.of(2024, 6, 30)))
+                .isEqualTo(ReportGranularity.MONTH);
+        assertThat(ReportGranularity.coarsest(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 31)))
+                .isEqualTo(ReportGranularity.WEEK);
+        assertThat(ReportGranularity.coarsest(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 30)))
+                .isEqualTo(ReportGranularity.DAY);
+    }
+}
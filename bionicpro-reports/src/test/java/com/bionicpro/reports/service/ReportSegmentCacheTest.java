@@ -0,0 +1,156 @@
+package com.bionicpro.reports.service;
+
+import com.bionicpro.reports.model.ReportObject;
+import com.bionicpro.reports.model.ReportRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReportSegmentCacheTest {
+
+    private static final String USER_ID = "user-1";
+    private static final List<String> PROSTHESES = List.of("prosthesis-a", "prosthesis-b");
+
+    private final FakeReportRepository repository = new FakeReportRepository();
+    private final MartStatusRepository martStatusRepository = mock(MartStatusRepository.class);
+    private final S3Service s3Service = mock(S3Service.class);
+    private final Map<String, byte[]> objects = new HashMap<>();
+    private final Map<YearMonth, Instant> monthLoadTimes = new HashMap<>();
+    private Instant lastLoad = Instant.parse("2024-06-01T00:00:00Z");
+    private ReportSegmentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        for (int month = 1; month <= 12; month++) {
+            monthLoadTimes.put(YearMonth.of(2024, month), lastLoad);
+        }
+        when(martStatusRepository.findLastLoadTime()).thenAnswer(invocation -> lastLoad);
+        when(martStatusRepository.findMonthLoadTimes()).thenAnswer(invocation -> new HashMap<>(monthLoadTimes));
+        doAnswer(invocation -> objects.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(s3Service).putObject(anyString(), any(byte[].class), anyString(), anyString());
+        when(s3Service.getObject(anyString())).thenAnswer(invocation -> {
+            byte[] content = objects.get(invocation.<String>getArgument(0));
+            return content == null ? null
+                    : new ReportObject(new ByteArrayInputStream(content), "application/octet-stream", "gzip",
+                    content.length);
+        });
+        // A zero version check interval reads the mart versions on every request
+        cache = new ReportSegmentCache(repository, martStatusRepository, s3Service, true, 3, 0, 1 << 20);
+    }
+
+    @Test
+    void mergesMonthSegmentsInProsthesisAndDayOrder() {
+        LocalDate startDate = LocalDate.of(2024, 1, 20);
+        LocalDate endDate = LocalDate.of(2024, 3, 10);
+
+        assertThat(stream(startDate, endDate)).containsExactlyElementsOf(repository.expected(startDate, endDate));
+        assertThat(repository.queries).hasSize(1);
+
+        repository.queries.clear();
+        assertThat(stream(startDate, endDate)).containsExactlyElementsOf(repository.expected(startDate, endDate));
+        assertThat(repository.queries).isEmpty();
+    }
+
+    @Test
+    void queriesEachRunOfMissingMonthsOnce() {
+        stream(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+        repository.queries.clear();
+
+        LocalDate startDate = LocalDate.of(2024, 1, 15);
+        LocalDate endDate = LocalDate.of(2024, 4, 10);
+        assertThat(stream(startDate, endDate)).containsExactlyElementsOf(repository.expected(startDate, endDate));
+        assertThat(repository.queries).containsExactly(
+                List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)),
+                List.of(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 30)));
+    }
+
+    @Test
+    void requeriesMonthsWhoseMartVersionChanged() {
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 3, 31);
+        stream(startDate, endDate);
+        repository.queries.clear();
+
+        lastLoad = lastLoad.plusSeconds(3600);
+        monthLoadTimes.put(YearMonth.of(2024, 2), lastLoad);
+
+        assertThat(stream(startDate, endDate)).containsExactlyElementsOf(repository.expected(startDate, endDate));
+        assertThat(repository.queries).containsExactly(List.of(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)));
+        assertThat(objects.keySet()).anyMatch(key -> key.startsWith("segments/" + USER_ID + "/2024-02-")
+                && key.endsWith("-" + lastLoad.toEpochMilli() + ".bin"));
+    }
+
+    @Test
+    void queriesUnsettledMonthsForRequestedDaysWithoutStoringThem() {
+        LocalDate endDate = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        LocalDate startDate = endDate.minusDays(1);
+
+        assertThat(stream(startDate, endDate)).containsExactlyElementsOf(repository.expected(startDate, endDate));
+        assertThat(repository.queries).containsExactly(List.of(startDate, endDate));
+        verify(s3Service, never()).putObject(anyString(), any(byte[].class), anyString(), anyString());
+    }
+
+    private List<String> stream(LocalDate startDate, LocalDate endDate) {
+        List<String> rows = new ArrayList<>();
+        cache.streamRows(USER_ID, startDate, endDate, row -> rows.add(describe(row)));
+        return rows;
+    }
+
+    private static String describe(ReportRow row) {
+        return row.getProsthesisId() + " " + LocalDate.ofEpochDay(row.getReportEpochDay()) + " "
+                + row.getUsageCount();
+    }
+
+    private static class FakeReportRepository implements ReportRepository {
+        private final List<List<LocalDate>> queries = new ArrayList<>();
+
+        @Override
+        public void streamRows(String userId, ReportGranularity granularity, LocalDate startDate, LocalDate endDate,
+                               Consumer<ReportRow> consumer) {
+            queries.add(List.of(startDate, endDate));
+            rows(userId, startDate, endDate, consumer);
+        }
+
+        List<String> expected(LocalDate startDate, LocalDate endDate) {
+            List<String> rows = new ArrayList<>();
+            rows(USER_ID, startDate, endDate, row -> rows.add(describe(row)));
+            return rows;
+        }
+
+        private static void rows(String userId, LocalDate startDate, LocalDate endDate, Consumer<ReportRow> consumer) {
+            // Ordered like the report query: by prosthesis, then by day
+            for (int prosthesis = 0; prosthesis < PROSTHESES.size(); prosthesis++) {
+                for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+                    ReportRow row = new ReportRow();
+                    row.setUserId(userId);
+                    row.setUserEmail(userId + "@example.com");
+                    row.setUserName("User");
+                    row.setProsthesisId(PROSTHESES.get(prosthesis));
+                    row.setProsthesisModel("BionicArm");
+                    row.setReportEpochDay((int) day.toEpochDay());
+                    row.setUsageCount(day.toEpochDay() * 10 + prosthesis);
+                    consumer.accept(row);
+                }
+            }
+        }
+    }
+}